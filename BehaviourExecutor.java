@@ -0,0 +1,108 @@
+//************************************************************************************
+// BehaviourExecutor.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Runs the per character behaviours (Move and Shoot loops) when the world is not in the tick mode.
+// PLATFORM mode runs every behaviour on its own platform thread (Like the first versions of the game).
+// VIRTUAL mode runs them on virtual threads (Java 21 and later). Virtual threads are created with reflection,
+// so the game still compiles and runs on older Java versions (Falls back to platform threads there).
+// Number of behaviours that run at the same time is limited with maxBehaviours.
+//************************************************************************************
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BehaviourExecutor {
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    //Limits the number of running behaviours
+    private final Semaphore permits;
+    private final int maxBehaviours;
+
+    //Number of behaviours that are running now
+    private final AtomicInteger live = new AtomicInteger();
+
+    public BehaviourExecutor(Mode mode, int maxBehaviours) {
+        this.maxBehaviours = maxBehaviours;
+        permits = new Semaphore(maxBehaviours);
+
+        ExecutorService virtualExecutor = mode == Mode.VIRTUAL ? createVirtualExecutor() : null;
+        virtual = virtualExecutor != null;
+
+        if (virtual)
+            executor = virtualExecutor;
+        else {
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "behaviour");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    //Creates Executors.newVirtualThreadPerTaskExecutor() if the Java version has it (null if it doesn't)
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    //Starts the behaviour. Returns false if maxBehaviours are already running or the executor is shut down
+    //(Caller runs the behaviour in another way, ex: in the simulation tick)
+    public boolean submit(Runnable behaviour) {
+        if (executor.isShutdown() || !permits.tryAcquire())
+            return false;
+
+        live.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    behaviour.run();
+                } finally {
+                    live.decrementAndGet();
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            live.decrementAndGet();
+            permits.release();
+            return false;
+        }
+        return true;
+    }
+
+    //Stops all the behaviours (They are interrupted while sleeping). Does not wait for them
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    //Waits until all the behaviours stop or the timeout passes. Returns true if all of them stopped
+    public boolean awaitTermination(long millis) throws InterruptedException {
+        return executor.awaitTermination(millis, TimeUnit.MILLISECONDS);
+    }
+
+    //Number of behaviours that are running now
+    public int getLiveCount() {
+        return live.get();
+    }
+
+    public int getMaxBehaviours() {
+        return maxBehaviours;
+    }
+
+    //True if the behaviours run on virtual threads
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
@@ -0,0 +1,136 @@
+//************************************************************************************
+// BulletStore.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Keeps all the bullets of the game in parallel primitive arrays (One slot per bullet).
+// Deleted slots go to a free list and are reused by the next bullets, so spawning and deleting
+// a bullet does not allocate anything (Arrays only grow when all the slots are in use).
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class BulletStore {
+
+    //Owners of the bullets
+    public static final byte AIRCRAFT = 0;
+    public static final byte ENEMY = 1;
+    public static final byte FRIEND = 2;
+
+    //Bullet slots. Only the slots below highWater have ever been used
+    int[] positionX;
+    int[] positionY;
+    //-1 or +1. -1 represents left ,+1 represents right
+    byte[] direction;
+    byte[] owner;
+    boolean[] alive;
+    //Step timer of the bullet in the world's timing wheel (-1 if it has none)
+    int[] timer;
+
+    //Deleted slots that can be reused (Used like a stack)
+    private int[] free;
+    private int freeCount = 0;
+
+    private int highWater = 0;
+    private int count = 0;
+
+    public BulletStore(int initialCapacity) {
+        initialCapacity = Math.max(1, initialCapacity);
+        positionX = new int[initialCapacity];
+        positionY = new int[initialCapacity];
+        direction = new byte[initialCapacity];
+        owner = new byte[initialCapacity];
+        alive = new boolean[initialCapacity];
+        timer = new int[initialCapacity];
+        free = new int[initialCapacity];
+    }
+
+    //Creates a bullet and returns its slot
+    public int spawn(int x, int y, int direction, byte owner) {
+        int slot;
+        if (freeCount > 0)
+            slot = free[--freeCount];
+        else {
+            if (highWater == alive.length)
+                grow();
+            slot = highWater++;
+        }
+
+        positionX[slot] = x;
+        positionY[slot] = y;
+        this.direction[slot] = (byte) direction;
+        this.owner[slot] = owner;
+        timer[slot] = -1;
+        alive[slot] = true;
+        count++;
+        return slot;
+    }
+
+    //Deletes the bullet in the given slot. Slot is reused by the next spawned bullets
+    public void kill(int slot) {
+        if (!alive[slot])
+            return;
+
+        alive[slot] = false;
+        free[freeCount++] = slot;
+        count--;
+    }
+
+    //Deletes all the bullets
+    public void clear() {
+        Arrays.fill(alive, 0, highWater, false);
+        highWater = 0;
+        freeCount = 0;
+        count = 0;
+    }
+
+    //Number of living bullets
+    public int size() {
+        return count;
+    }
+
+    //Slots from 0 to highWater-1 may contain living bullets
+    public int getHighWater() {
+        return highWater;
+    }
+
+    //Writes the store into a snapshot (Counts, the used slots of every array, then the free slots)
+    void save(WorldSnapshot.Output output) {
+        output.putInt(highWater);
+        output.putInt(count);
+        output.putInt(freeCount);
+        output.putInts(positionX, highWater);
+        output.putInts(positionY, highWater);
+        output.putBytes(direction, highWater);
+        output.putBytes(owner, highWater);
+        output.putBooleans(alive, highWater);
+        output.putInts(timer, highWater);
+        output.putInts(free, freeCount);
+    }
+
+    //Replaces the contents of the store with a snapshot written by save
+    void load(WorldSnapshot.Input input) {
+        highWater = input.getInt();
+        count = input.getInt();
+        freeCount = input.getInt();
+
+        int capacity = Math.max(1, highWater);
+        positionX = input.getInts(capacity);
+        positionY = input.getInts(capacity);
+        direction = input.getBytes(capacity);
+        owner = input.getBytes(capacity);
+        alive = input.getBooleans(capacity);
+        timer = input.getInts(capacity);
+        free = input.getInts(capacity);
+    }
+
+    //Doubles the size of all the arrays
+    private void grow() {
+        int capacity = alive.length * 2;
+        positionX = Arrays.copyOf(positionX, capacity);
+        positionY = Arrays.copyOf(positionY, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        timer = Arrays.copyOf(timer, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+}
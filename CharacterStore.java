@@ -0,0 +1,316 @@
+//************************************************************************************
+// CharacterStore.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Keeps all the characters of the world as components in primitive arrays (No object per character).
+// Characters with the same components and behaviour (AirCraft, enemies and friends) form an archetype. Every
+// archetype keeps its characters densely packed in its own columns (Position, size, color, timers...), so the
+// systems of the world (Movement, shooting, collision, painting) only read the columns they need.
+// Every character also has a slot (Its id in the SpatialGrid and the timers) and a handle (Slot together with the
+// generation of the slot, so the handle of a deleted character never finds the character that reuses its slot).
+// Deleted characters stay in their columns until flush(), which removes them by moving the last character of the
+// archetype into their place. Store is not synchronized by itself, all callers hold the lock of the world.
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class CharacterStore {
+
+    //Archetypes (Same values as the owners of the bullets)
+    public static final byte AIRCRAFT = 0;
+    public static final byte ENEMY = 1;
+    public static final byte FRIEND = 2;
+
+    //Handle = generation << SLOT_BITS | slot
+    private static final int SLOT_BITS = 24;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7F;
+
+    //Dense columns of one archetype. Index i of every column belongs to the same character
+    static class Archetype {
+        int count = 0;
+
+        int[] slot;
+        int[] positionX;
+        int[] positionY;
+        int[] size;
+        int[] rgb;
+        boolean[] alive;
+        //True after the first position is given (Character is counted in the occupancy map)
+        boolean[] placed;
+        //Timers of the behaviours in the timing wheel (-1 if the behaviour is not a timer)
+        int[] moveTimer;
+        int[] shootTimer;
+
+        Archetype(int capacity) {
+            slot = new int[capacity];
+            positionX = new int[capacity];
+            positionY = new int[capacity];
+            size = new int[capacity];
+            rgb = new int[capacity];
+            alive = new boolean[capacity];
+            placed = new boolean[capacity];
+            moveTimer = new int[capacity];
+            shootTimer = new int[capacity];
+        }
+
+        //Adds a character to the end of the columns and returns its index
+        int add(int slot, int size, int rgb) {
+            if (count == this.slot.length)
+                grow();
+
+            int index = count++;
+            this.slot[index] = slot;
+            positionX[index] = 0;
+            positionY[index] = 0;
+            this.size[index] = size;
+            this.rgb[index] = rgb;
+            alive[index] = true;
+            placed[index] = false;
+            moveTimer[index] = -1;
+            shootTimer[index] = -1;
+            return index;
+        }
+
+        //Moves the last character into the given index. Returns the slot of the moved character (-1 if it was the last)
+        int removeAt(int index) {
+            int last = --count;
+            if (index == last)
+                return -1;
+
+            slot[index] = slot[last];
+            positionX[index] = positionX[last];
+            positionY[index] = positionY[last];
+            size[index] = size[last];
+            rgb[index] = rgb[last];
+            alive[index] = alive[last];
+            placed[index] = placed[last];
+            moveTimer[index] = moveTimer[last];
+            shootTimer[index] = shootTimer[last];
+            return slot[index];
+        }
+
+        private void grow() {
+            int capacity = slot.length * 2;
+            slot = Arrays.copyOf(slot, capacity);
+            positionX = Arrays.copyOf(positionX, capacity);
+            positionY = Arrays.copyOf(positionY, capacity);
+            size = Arrays.copyOf(size, capacity);
+            rgb = Arrays.copyOf(rgb, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+            placed = Arrays.copyOf(placed, capacity);
+            moveTimer = Arrays.copyOf(moveTimer, capacity);
+            shootTimer = Arrays.copyOf(shootTimer, capacity);
+        }
+    }
+
+    //Archetypes by their numbers (AIRCRAFT, ENEMY, FRIEND)
+    final Archetype[] archetypes = {new Archetype(1), new Archetype(64), new Archetype(64)};
+
+    //Sparse arrays (By slot). Archetype of the slot and the index of its character in the archetype (-1 if the slot is empty)
+    private byte[] archetypeOf;
+    private int[] indexOf;
+    private int[] generations;
+
+    //Empty slots that can be reused (Used like a stack)
+    private int[] free;
+    private int freeCount = 0;
+    private int slotCount = 0;
+
+    //Handles that will be removed at the next flush
+    private int[] pending = new int[16];
+    private int pendingCount = 0;
+
+    public CharacterStore(int initialCapacity) {
+        initialCapacity = Math.max(16, initialCapacity);
+        archetypeOf = new byte[initialCapacity];
+        indexOf = new int[initialCapacity];
+        Arrays.fill(indexOf, -1);
+        generations = new int[initialCapacity];
+        free = new int[initialCapacity];
+    }
+
+    //Slot of the given handle
+    public static int slotOf(int handle) {
+        return handle & SLOT_MASK;
+    }
+
+    //Adds a character to the archetype and returns its handle
+    public int add(byte archetype, int size, int rgb) {
+        int slot;
+        if (freeCount > 0)
+            slot = free[--freeCount];
+        else {
+            if (slotCount == indexOf.length)
+                grow();
+            slot = slotCount++;
+        }
+
+        archetypeOf[slot] = archetype;
+        indexOf[slot] = archetypes[archetype].add(slot, size, rgb);
+        return generations[slot] << SLOT_BITS | slot;
+    }
+
+    //Returns the slot of the handle (-1 if its character is removed)
+    public int slot(int handle) {
+        int slot = handle & SLOT_MASK;
+        if (slot >= slotCount || generations[slot] != handle >>> SLOT_BITS || indexOf[slot] == -1)
+            return -1;
+        return slot;
+    }
+
+    //Handle of the character in the slot
+    public int handle(int slot) {
+        return generations[slot] << SLOT_BITS | slot;
+    }
+
+    //True if the slot has a character that is not deleted
+    public boolean isAlive(int slot) {
+        return slot >= 0 && slot < slotCount && indexOf[slot] != -1 && archetypes[archetypeOf[slot]].alive[indexOf[slot]];
+    }
+
+    public byte archetype(int slot) {
+        return archetypeOf[slot];
+    }
+
+    //Index of the slot's character in the columns of its archetype
+    public int index(int slot) {
+        return indexOf[slot];
+    }
+
+    //Columns of the slot's archetype
+    public Archetype columns(int slot) {
+        return archetypes[archetypeOf[slot]];
+    }
+
+    public int positionX(int slot) {
+        return archetypes[archetypeOf[slot]].positionX[indexOf[slot]];
+    }
+
+    public int positionY(int slot) {
+        return archetypes[archetypeOf[slot]].positionY[indexOf[slot]];
+    }
+
+    public int size(int slot) {
+        return archetypes[archetypeOf[slot]].size[indexOf[slot]];
+    }
+
+    //Number of characters in the archetype (Includes the ones waiting for the next flush)
+    public int count(byte archetype) {
+        return archetypes[archetype].count;
+    }
+
+    //Number of characters of all the archetypes (Includes the ones waiting for the next flush)
+    public int size() {
+        return archetypes[AIRCRAFT].count + archetypes[ENEMY].count + archetypes[FRIEND].count;
+    }
+
+    //Number of slots that have ever been used. Slots from 0 to getSlotCount()-1 may have characters
+    public int getSlotCount() {
+        return slotCount;
+    }
+
+    //Marks the character as deleted but keeps it in the columns (ex: AirCraft after the game is over)
+    public void markDead(int slot) {
+        archetypes[archetypeOf[slot]].alive[indexOf[slot]] = false;
+    }
+
+    //Marks the character as deleted. It is removed from the columns at the next flush
+    public void remove(int slot) {
+        markDead(slot);
+        if (pendingCount == pending.length)
+            pending = Arrays.copyOf(pending, pendingCount * 2);
+        pending[pendingCount++] = handle(slot);
+    }
+
+    //Removes all the marked characters (Each one in constant time). Returns the number of removed characters
+    public int flush() {
+        int removed = 0;
+        for (int i = 0; i < pendingCount; i++) {
+            int handle = pending[i];
+            int slot = handle & SLOT_MASK;
+
+            //Skips the handles that are already removed (ex: marked twice)
+            if (generations[slot] != handle >>> SLOT_BITS || indexOf[slot] == -1)
+                continue;
+
+            int moved = archetypes[archetypeOf[slot]].removeAt(indexOf[slot]);
+            if (moved != -1)
+                indexOf[moved] = indexOf[slot];
+
+            indexOf[slot] = -1;
+            generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+            free[freeCount++] = slot;
+            removed++;
+        }
+        pendingCount = 0;
+        return removed;
+    }
+
+    //Writes the store into a snapshot (Counts, sparse arrays by slot, free slots, pending removals, then the columns of
+    //every archetype). Only the used parts of the arrays are written
+    void save(WorldSnapshot.Output output) {
+        output.putInt(slotCount);
+        output.putInt(freeCount);
+        output.putInt(pendingCount);
+        output.putBytes(archetypeOf, slotCount);
+        output.putInts(indexOf, slotCount);
+        output.putInts(generations, slotCount);
+        output.putInts(free, freeCount);
+        output.putInts(pending, pendingCount);
+
+        for (Archetype archetype : archetypes) {
+            int count = archetype.count;
+            output.putInt(count);
+            output.putInts(archetype.slot, count);
+            output.putInts(archetype.positionX, count);
+            output.putInts(archetype.positionY, count);
+            output.putInts(archetype.size, count);
+            output.putInts(archetype.rgb, count);
+            output.putBooleans(archetype.alive, count);
+            output.putBooleans(archetype.placed, count);
+            output.putInts(archetype.moveTimer, count);
+            output.putInts(archetype.shootTimer, count);
+        }
+    }
+
+    //Replaces the contents of the store with a snapshot written by save
+    void load(WorldSnapshot.Input input) {
+        slotCount = input.getInt();
+        freeCount = input.getInt();
+        pendingCount = input.getInt();
+
+        int capacity = Math.max(16, slotCount);
+        archetypeOf = input.getBytes(capacity);
+        indexOf = input.getInts(capacity);
+        Arrays.fill(indexOf, slotCount, capacity, -1);
+        generations = input.getInts(capacity);
+        free = input.getInts(capacity);
+        pending = input.getInts(Math.max(16, pendingCount));
+
+        for (Archetype archetype : archetypes) {
+            int count = input.getInt();
+            int columnCapacity = Math.max(16, count);
+            archetype.count = count;
+            archetype.slot = input.getInts(columnCapacity);
+            archetype.positionX = input.getInts(columnCapacity);
+            archetype.positionY = input.getInts(columnCapacity);
+            archetype.size = input.getInts(columnCapacity);
+            archetype.rgb = input.getInts(columnCapacity);
+            archetype.alive = input.getBooleans(columnCapacity);
+            archetype.placed = input.getBooleans(columnCapacity);
+            archetype.moveTimer = input.getInts(columnCapacity);
+            archetype.shootTimer = input.getInts(columnCapacity);
+        }
+    }
+
+    //Doubles the size of the sparse arrays
+    private void grow() {
+        int capacity = indexOf.length * 2;
+        int oldCapacity = indexOf.length;
+        archetypeOf = Arrays.copyOf(archetypeOf, capacity);
+        indexOf = Arrays.copyOf(indexOf, capacity);
+        Arrays.fill(indexOf, oldCapacity, capacity, -1);
+        generations = Arrays.copyOf(generations, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+}
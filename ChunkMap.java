@@ -0,0 +1,193 @@
+//************************************************************************************
+// ChunkMap.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Divides the world into square chunks and keeps which of them are active. Chunks that are at most radius chunks
+// away from the aircraft's chunk (In both directions) are active, the others are dormant.
+// Characters of the dormant chunks sleep: They have no timers, so they cost nothing in the ticks. Every chunk
+// keeps its sleeping characters in an intrusive list (By slot) with the tick they fell asleep, so when the chunk
+// becomes active again the world wakes all of them together and catches up the time they slept.
+// Sleeping characters stay in the grid, so bullets and the aircraft still hit them.
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class ChunkMap {
+
+    private final int chunkSize;
+    private final int columns;
+    private final int rows;
+    private final int radius;
+
+    //Chunk of the aircraft (-1 before the first center is given)
+    private int centerColumn = -1;
+    private int centerRow = -1;
+
+    //First sleeping slot of every chunk (-1 if none)
+    private final int[] head;
+
+    //Sparse arrays (By slot). Neighbours in the list of the chunk, chunk of the slot (-1 if it is awake) and the tick it slept
+    private int[] nextSlot = new int[64];
+    private int[] previousSlot = new int[64];
+    private int[] chunkOf = new int[64];
+    private long[] sleepTick = new long[64];
+
+    private int sleeping = 0;
+
+    public ChunkMap(int width, int height, int chunkSize, int radius) {
+        this.chunkSize = chunkSize;
+        this.radius = radius;
+        columns = Math.max(1, (width + chunkSize - 1) / chunkSize);
+        rows = Math.max(1, (height + chunkSize - 1) / chunkSize);
+        head = new int[columns * rows];
+        Arrays.fill(head, -1);
+        Arrays.fill(chunkOf, -1);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    //Number of sleeping characters
+    public int getSleeping() {
+        return sleeping;
+    }
+
+    //Chunk of the given position (Positions outside of the world are in the nearest chunk)
+    public int chunkOf(int x, int y) {
+        return row(y) * columns + column(x);
+    }
+
+    //True if the chunk of the position is near the aircraft (Everything is active before the first center)
+    public boolean isActive(int x, int y) {
+        if (centerColumn == -1)
+            return true;
+        return Math.abs(column(x) - centerColumn) <= radius && Math.abs(row(y) - centerRow) <= radius;
+    }
+
+    //Moves the center to the aircraft's position. Writes the chunks that became active into woken and returns
+    //their number (0 if the aircraft is still in the same chunk). woken needs (2 * radius + 1)^2 places
+    public int setCenter(int x, int y, int[] woken) {
+        int oldColumn = centerColumn;
+        int oldRow = centerRow;
+        int column = column(x);
+        int row = row(y);
+        if (column == oldColumn && row == oldRow)
+            return 0;
+
+        centerColumn = column;
+        centerRow = row;
+
+        //Chunks of the new window that were not in the old window
+        int count = 0;
+        for (int r = Math.max(0, row - radius); r <= Math.min(rows - 1, row + radius); r++) {
+            for (int c = Math.max(0, column - radius); c <= Math.min(columns - 1, column + radius); c++) {
+                boolean wasActive = oldColumn != -1 && Math.abs(c - oldColumn) <= radius && Math.abs(r - oldRow) <= radius;
+                if (!wasActive && head[r * columns + c] != -1)
+                    woken[count++] = r * columns + c;
+            }
+        }
+        return count;
+    }
+
+    //Maximum number of chunks that setCenter can wake at once
+    public int getWindowSize() {
+        return (2 * radius + 1) * (2 * radius + 1);
+    }
+
+    //Puts the character in the slot to sleep in the chunk of its position
+    public void sleep(int slot, int x, int y, long tick) {
+        ensureCapacity(slot);
+        if (chunkOf[slot] != -1)
+            return;
+
+        int chunk = chunkOf(x, y);
+        chunkOf[slot] = chunk;
+        sleepTick[slot] = tick;
+        previousSlot[slot] = -1;
+        nextSlot[slot] = head[chunk];
+        if (head[chunk] != -1)
+            previousSlot[head[chunk]] = slot;
+        head[chunk] = slot;
+        sleeping++;
+    }
+
+    //Removes the character in the slot from its chunk's list (ex: it is deleted or woken). Nothing happens if it is awake
+    public void remove(int slot) {
+        if (slot >= chunkOf.length || chunkOf[slot] == -1)
+            return;
+
+        int chunk = chunkOf[slot];
+        if (previousSlot[slot] != -1)
+            nextSlot[previousSlot[slot]] = nextSlot[slot];
+        else
+            head[chunk] = nextSlot[slot];
+        if (nextSlot[slot] != -1)
+            previousSlot[nextSlot[slot]] = previousSlot[slot];
+
+        chunkOf[slot] = -1;
+        sleeping--;
+    }
+
+    public boolean isSleeping(int slot) {
+        return slot < chunkOf.length && chunkOf[slot] != -1;
+    }
+
+    //First sleeping slot of the chunk (-1 if none). Next ones are found with next(slot)
+    public int first(int chunk) {
+        return head[chunk];
+    }
+
+    public int next(int slot) {
+        return nextSlot[slot];
+    }
+
+    //Tick in which the character in the slot fell asleep
+    public long getSleepTick(int slot) {
+        return sleepTick[slot];
+    }
+
+    //Writes the center and the sleeping characters into a snapshot
+    void save(WorldSnapshot.Output output) {
+        output.putInt(centerColumn);
+        output.putInt(centerRow);
+        output.putInt(sleeping);
+        output.putInts(head, head.length);
+        output.putInts(nextSlot, nextSlot.length);
+        output.putInts(previousSlot, previousSlot.length);
+        output.putInts(chunkOf, chunkOf.length);
+        output.putLongs(sleepTick, sleepTick.length);
+    }
+
+    //Replaces the center and the sleeping characters with a snapshot written by save (Map needs the same size)
+    void load(WorldSnapshot.Input input) {
+        centerColumn = input.getInt();
+        centerRow = input.getInt();
+        sleeping = input.getInt();
+        input.getInts(head);
+        nextSlot = input.getInts(0);
+        previousSlot = input.getInts(0);
+        chunkOf = input.getInts(0);
+        sleepTick = input.getLongs(0);
+    }
+
+    private int column(int x) {
+        return Math.min(columns - 1, Math.max(0, x / chunkSize));
+    }
+
+    private int row(int y) {
+        return Math.min(rows - 1, Math.max(0, y / chunkSize));
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < chunkOf.length)
+            return;
+
+        int oldCapacity = chunkOf.length;
+        int capacity = Math.max(slot + 1, oldCapacity * 2);
+        nextSlot = Arrays.copyOf(nextSlot, capacity);
+        previousSlot = Arrays.copyOf(previousSlot, capacity);
+        sleepTick = Arrays.copyOf(sleepTick, capacity);
+        chunkOf = Arrays.copyOf(chunkOf, capacity);
+        Arrays.fill(chunkOf, oldCapacity, capacity, -1);
+    }
+}
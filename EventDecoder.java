@@ -0,0 +1,158 @@
+//************************************************************************************
+// EventDecoder.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Prints the events of a file written by EventRecorder (ex: After a game that misbehaved) as text or CSV,
+// oldest first. Works on the file of a running or crashed game too (Records that are not complete are skipped).
+//
+// Compile and run from the project directory:
+//     javac -d out *.java
+//     java -cp out EventDecoder events.bin [--last seconds] [--csv]
+//
+// "--last N" prints only the events of the last N seconds of the recording (All the events in the ring by default).
+//************************************************************************************
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+public class EventDecoder {
+
+    //Names of the event types (Index is the type)
+    static final String[] TYPES = {"unknown", "enemy killed", "friend killed", "game won", "game lost", "shot",
+            "bullet hit", "exception"};
+
+    //Names of the archetypes and bullet owners (Same values)
+    static final String[] ARCHETYPES = {"aircraft", "enemy", "friend"};
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java EventDecoder events.bin [--last seconds] [--csv]");
+            return;
+        }
+
+        double lastSeconds = -1;
+        boolean csv = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--last") && i + 1 < args.length)
+                lastSeconds = Double.parseDouble(args[++i]);
+            else if (args[i].equals("--csv"))
+                csv = true;
+        }
+
+        decode(Paths.get(args[0]), lastSeconds, csv, System.out);
+    }
+
+    //Prints the events of the file (Only the last lastSeconds seconds of them if it is not negative)
+    static void decode(Path path, double lastSeconds, boolean csv, PrintStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != EventRecorder.MAGIC)
+                throw new IOException("Not an event file: " + path);
+            if (buffer.getShort(4) != EventRecorder.VERSION || buffer.getShort(6) != EventRecorder.RECORD_SIZE)
+                throw new IOException("Unsupported version of the event file: " + buffer.getShort(4));
+
+            int capacity = buffer.getInt(8);
+            long startMillis = buffer.getLong(16);
+            long seed = buffer.getLong(24);
+            int mask = capacity - 1;
+
+            //Newest record has the biggest sequence. Older ones are the capacity-1 sequences before it
+            long newest = 0;
+            for (int i = 0; i < capacity; i++)
+                newest = Math.max(newest, EventRecorder.sequenceAt(buffer, position(i)));
+            if (newest == 0) {
+                out.println("No events");
+                return;
+            }
+
+            long endNanos = buffer.getLong(position((int) ((newest - 1) & mask)) + 8);
+            long fromNanos = lastSeconds < 0 ? Long.MIN_VALUE : endNanos - (long) (lastSeconds * 1e9);
+
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+            if (csv)
+                out.println("sequence,time,seconds,tick,event,detail,a,b");
+            else
+                out.println("Events of the world with seed " + seed + " (Recorded at " + format.format(new Date(startMillis)) + ")");
+
+            for (long sequence = Math.max(1, newest - capacity + 1); sequence <= newest; sequence++) {
+                int position = position((int) ((sequence - 1) & mask));
+
+                //Overwritten while the game was running or not complete
+                if (EventRecorder.sequenceAt(buffer, position) != sequence)
+                    continue;
+
+                long nanos = buffer.getLong(position + 8);
+                if (nanos < fromNanos)
+                    continue;
+
+                int tick = buffer.getInt(position + 16);
+                int type = buffer.getShort(position + 20);
+                int detail = buffer.getShort(position + 22);
+                int a = buffer.getInt(position + 24);
+                int b = buffer.getInt(position + 28);
+
+                //Record was overwritten while it was read (The game is still running)
+                VarHandle.loadLoadFence();
+                if (EventRecorder.sequenceAt(buffer, position) != sequence)
+                    continue;
+
+                String time = format.format(new Date(startMillis + nanos / 1_000_000));
+                String name = type > 0 && type < TYPES.length ? TYPES[type] : TYPES[0];
+                if (csv)
+                    out.println(sequence - 1 + "," + time + "," + nanos / 1e9 + "," + tick + "," + name + "," + detail(type, detail) + "," + a + "," + b);
+                else
+                    out.println(time + "  tick " + tick + "  " + describe(type, detail, a, b));
+            }
+        }
+    }
+
+    //Position of the record with the given index in the file
+    private static int position(int index) {
+        return EventRecorder.HEADER_SIZE + index * EventRecorder.RECORD_SIZE;
+    }
+
+    //Text of the detail field (ex: "enemy" for a shot of an enemy)
+    static String detail(int type, int detail) {
+        if (type == EventRecorder.SHOT)
+            return archetype(detail);
+        if (type == EventRecorder.BULLET_HIT)
+            return archetype(detail >> 8) + "->" + archetype(detail & 0xFF);
+        return "";
+    }
+
+    //One line description of the event
+    static String describe(int type, int detail, int a, int b) {
+        switch (type) {
+            case EventRecorder.ENEMY_KILLED:
+                return "enemy killed at (" + a + ", " + b + ")";
+            case EventRecorder.FRIEND_KILLED:
+                return "friend killed at (" + a + ", " + b + ")";
+            case EventRecorder.GAME_WON:
+                return "game won, aircraft at (" + a + ", " + b + ")";
+            case EventRecorder.GAME_LOST:
+                return "game lost, aircraft at (" + a + ", " + b + ")";
+            case EventRecorder.SHOT:
+                return archetype(detail) + " shot at (" + a + ", " + b + ")";
+            case EventRecorder.BULLET_HIT:
+                return "bullet of " + archetype(detail >> 8) + " hit " + archetype(detail & 0xFF) + " at (" + a + ", " + b + ")";
+            case EventRecorder.EXCEPTION:
+                return "exception swallowed (Class name hash " + Integer.toHexString(a) + ")";
+            default:
+                return "unknown event " + type;
+        }
+    }
+
+    private static String archetype(int archetype) {
+        return archetype >= 0 && archetype < ARCHETYPES.length ? ARCHETYPES[archetype] : "unknown";
+    }
+}
@@ -0,0 +1,143 @@
+//************************************************************************************
+// EventRecorder.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Flight recorder of the gameplay events (Kills, end of the game, shots, bullet hits and swallowed exceptions).
+// Every event is a fixed size record written into a ring in a memory mapped file, so recording an event is a few
+// writes into memory (No lock, no allocation, no system call) and the newest events overwrite the oldest ones.
+// File is kept by the operating system even if the game crashes. EventDecoder prints the last events of a file.
+//
+// File format (Little endian):
+//     Header (64 bytes): int magic ("ASGE"), short version, short record size, int capacity, int 0,
+//                        long start time (Milliseconds since 1970), long seed of the world
+//     capacity records (32 bytes): long sequence + 1 (0 if the record is empty, negative while it is being written),
+//                        long nanoseconds since the start, int tick, short type, short detail, int a, int b
+// Writers can be on any thread. A writer takes its record with a compare and set of the sequence (Published sequence
+// of an older event -> minus its own sequence + 1), then writes the event and publishes the sequence last with a
+// release store. A writer that laps a slower one on the same record (Small ring, many writers) waits until the slower
+// one published its event, so two writers never write one record at the same time and a reader never takes a record
+// that is being written for a complete one. EventDecoder also reads the sequence again after the event and skips the
+// record if it changed.
+//************************************************************************************
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class EventRecorder implements Closeable {
+
+    static final int MAGIC = 0x41534745;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_SIZE = 32;
+
+    //Largest ring that fits into one mapping
+    static final int MAX_CAPACITY = 1 << 25;
+
+    //Types of the events. Meaning of detail, a and b for every type
+    //ENEMY_KILLED, FRIEND_KILLED: -, position of the character
+    public static final int ENEMY_KILLED = 1;
+    public static final int FRIEND_KILLED = 2;
+    //GAME_WON, GAME_LOST: -, position of the aircraft
+    public static final int GAME_WON = 3;
+    public static final int GAME_LOST = 4;
+    //SHOT: archetype of the shooter (CharacterStore.AIRCRAFT, ENEMY, FRIEND), position of the shooter
+    public static final int SHOT = 5;
+    //BULLET_HIT: owner of the bullet << 8 | archetype of the hit character, position of the bullet
+    public static final int BULLET_HIT = 6;
+    //EXCEPTION: -, hash of the exception's class name, 0 (Whole exception is in the metrics and JFR)
+    public static final int EXCEPTION = 7;
+
+    //Ordered access to the sequence of a record (Positions of the sequences are aligned to 8 bytes)
+    private static final VarHandle SEQUENCE = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int mask;
+    private final long startNanos;
+
+    //Sequence of the next record. Writers take their record with one atomic increment
+    private final AtomicLong next = new AtomicLong();
+
+    //Creates the file with room for capacity records (Rounded up to a power of two)
+    public EventRecorder(Path path, int capacity, long seed) throws IOException {
+        //Clamped before the shift (Shifting the highest bit of a bigger capacity overflows)
+        capacity = Integer.highestOneBit(Math.max(2, Math.min(capacity, MAX_CAPACITY) - 1)) << 1;
+        mask = capacity - 1;
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        startNanos = System.nanoTime();
+        buffer.putInt(0, MAGIC);
+        buffer.putShort(4, (short) VERSION);
+        buffer.putShort(6, (short) RECORD_SIZE);
+        buffer.putInt(8, capacity);
+        buffer.putLong(16, System.currentTimeMillis());
+        buffer.putLong(24, seed);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    //Number of events recorded so far (Only the last capacity of them are in the file)
+    public long getCount() {
+        return next.get();
+    }
+
+    //Writes an event into the next record of the ring. Can be called from any thread
+    public void record(long tick, int type, int detail, int a, int b) {
+        long sequence = next.getAndIncrement();
+        int position = HEADER_SIZE + (int) (sequence & mask) * RECORD_SIZE;
+
+        //Takes the record from the older event in it (Published or being written by a slower writer, then this one waits
+        //for it). Record is not complete until the new sequence is published
+        long claimed = -(sequence + 1);
+        for (int spins = 0; ; spins++) {
+            long current = (long) SEQUENCE.getVolatile(buffer, position);
+
+            //A newer writer already took the record (This one was stopped for a whole turn of the ring), event is dropped
+            if (Math.abs(current) > sequence + 1)
+                return;
+
+            if (current >= 0) {
+                if (SEQUENCE.compareAndSet(buffer, position, current, claimed))
+                    break;
+            }
+            //Other writer may not be running (More writers than processors), then gives it the processor
+            else if (spins < 100)
+                Thread.onSpinWait();
+            else
+                Thread.yield();
+        }
+
+        buffer.putLong(position + 8, System.nanoTime() - startNanos);
+        buffer.putInt(position + 16, (int) tick);
+        buffer.putShort(position + 20, (short) type);
+        buffer.putShort(position + 22, (short) detail);
+        buffer.putInt(position + 24, a);
+        buffer.putInt(position + 28, b);
+        SEQUENCE.setRelease(buffer, position, sequence + 1);
+    }
+
+    //Sequence + 1 of the record at the given position (0 if it is empty, negative if it is being written). Used by the readers
+    static long sequenceAt(MappedByteBuffer buffer, int position) {
+        return (long) SEQUENCE.getAcquire(buffer, position);
+    }
+
+    //Writes the records to the disk and closes the file
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
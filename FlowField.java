@@ -0,0 +1,225 @@
+//************************************************************************************
+// FlowField.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Direction to the nearest target from every cell of the 10px lattice (ex: To the aircraft for the enemies).
+// Lattice has no walls (Characters are not obstacles, they resolve their collisions themselves), so with one target
+// (ex: The aircraft) the distance of every cell is its manhattan distance to the target and the direction is found
+// from the two cells alone. Nothing is searched when the target moves, there is no field to update.
+// With more targets (ex: The enemies for the friends) the field is made with one breadth first search from the
+// target cells, then every character that follows it only reads the distances of its own cell's neighbours
+// (Constant time, no path search per character). Search runs again only when the set of target cells is not the
+// set of the last search, and not before the field is read.
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class FlowField {
+
+    //Directions (Same as the directions of the random moves). NONE for the target cells and unreachable cells
+    public static final int NONE = -1;
+    public static final int NORTH = 0;
+    public static final int WEST = 1;
+    public static final int SOUTH = 2;
+    public static final int EAST = 3;
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    //Steps from every cell to the nearest target (-1 if there is no target)
+    private final int[] distances;
+
+    //Cells waiting in the search (Every cell is added once, so the queue is never bigger than the lattice)
+    private final int[] queue;
+
+    //Target cells of the next search
+    private int[] targets = new int[16];
+    private int targetCount = 0;
+
+    //True if the targets changed after the last search
+    private boolean dirty = false;
+
+    //Sorted target cells of the last search (-1 count before the first search)
+    private int[] searched = new int[16];
+    private int searchedCount = -1;
+
+    //Number of searches (ex: to see how often the field is made again)
+    private long searches = 0;
+
+    public FlowField(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, width / cellSize);
+        rows = Math.max(1, height / cellSize);
+
+        int cells = columns * rows;
+        distances = new int[cells];
+        queue = new int[cells];
+        Arrays.fill(distances, -1);
+    }
+
+    //Makes the cell of the given position the only target. Field is not searched again if it is already the only target
+    public void setTarget(int x, int y) {
+        int cell = cellOf(x, y);
+        if (targetCount == 1 && targets[0] == cell)
+            return;
+
+        targetCount = 0;
+        addTarget(x, y);
+    }
+
+    //Removes all the targets (Every cell has NONE after the next search)
+    public void clearTargets() {
+        targetCount = 0;
+        dirty = true;
+    }
+
+    //Adds the cell of the given position to the targets. Positions outside of the lattice are ignored
+    public void addTarget(int x, int y) {
+        int cell = cellOf(x, y);
+        dirty = true;
+        if (cell == -1)
+            return;
+
+        if (targetCount == targets.length)
+            targets = Arrays.copyOf(targets, targetCount * 2);
+        targets[targetCount++] = cell;
+    }
+
+    //Direction to the nearest target from the given position (NONE if it is on a target, outside of the lattice or
+    //there is no target). If both a vertical and a horizontal step get closer, cells choose them in turns like a
+    //chessboard, so the followers go diagonally (Otherwise they would first follow every horizontal move of the target)
+    public int direction(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell == -1)
+            return NONE;
+
+        int column = cell % columns;
+        int row = cell / columns;
+        int vertical = NONE;
+        int horizontal = NONE;
+
+        //Only the steps that get closer to the one target (The same cells the search would find)
+        if (targetCount == 1) {
+            int targetColumn = targets[0] % columns;
+            int targetRow = targets[0] / columns;
+            if (targetRow < row)
+                vertical = NORTH;
+            else if (targetRow > row)
+                vertical = SOUTH;
+
+            if (targetColumn < column)
+                horizontal = WEST;
+            else if (targetColumn > column)
+                horizontal = EAST;
+        }
+        else {
+            if (dirty)
+                search();
+            if (distances[cell] <= 0)
+                return NONE;
+
+            int closer = distances[cell] - 1;
+            if (row > 0 && distances[cell - columns] == closer)
+                vertical = NORTH;
+            else if (row < rows - 1 && distances[cell + columns] == closer)
+                vertical = SOUTH;
+
+            if (column > 0 && distances[cell - 1] == closer)
+                horizontal = WEST;
+            else if (column < columns - 1 && distances[cell + 1] == closer)
+                horizontal = EAST;
+        }
+
+        if (vertical == NONE)
+            return horizontal;
+        if (horizontal == NONE || ((column + row) & 1) == 0)
+            return vertical;
+        return horizontal;
+    }
+
+    //Steps from the given position to the nearest target (-1 if there is no target or it is outside of the lattice)
+    public int distance(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell == -1)
+            return -1;
+
+        if (targetCount == 1)
+            return Math.abs(targets[0] % columns - cell % columns) + Math.abs(targets[0] / columns - cell / columns);
+
+        if (dirty)
+            search();
+        return distances[cell];
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    private int cellOf(int x, int y) {
+        if (x < 0 || y < 0)
+            return -1;
+
+        int column = x / cellSize;
+        int row = y / cellSize;
+        if (column >= columns || row >= rows)
+            return -1;
+        return row * columns + column;
+    }
+
+    //Breadth first search from all the targets. Finds the number of steps from every cell to its nearest target.
+    //Distances don't depend on the order of the targets, so the search is skipped if the same cells are targets again
+    private void search() {
+        dirty = false;
+
+        //Sorted target cells without the repeated ones (Many characters can be in one cell)
+        Arrays.sort(targets, 0, targetCount);
+        int unique = 0;
+        for (int i = 0; i < targetCount; i++)
+            if (unique == 0 || targets[unique - 1] != targets[i])
+                targets[unique++] = targets[i];
+        targetCount = unique;
+
+        if (searchedCount == targetCount && Arrays.equals(searched, 0, targetCount, targets, 0, targetCount))
+            return;
+        if (searched.length < targetCount)
+            searched = new int[targets.length];
+        System.arraycopy(targets, 0, searched, 0, targetCount);
+        searchedCount = targetCount;
+
+        searches++;
+        Arrays.fill(distances, -1);
+
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < targetCount; i++) {
+            int cell = targets[i];
+            distances[cell] = 0;
+            queue[tail++] = cell;
+        }
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int column = cell % columns;
+            int next = distances[cell] + 1;
+
+            if (cell >= columns)
+                tail = visit(cell - columns, next, tail);
+            if (column > 0)
+                tail = visit(cell - 1, next, tail);
+            if (cell + columns < distances.length)
+                tail = visit(cell + columns, next, tail);
+            if (column < columns - 1)
+                tail = visit(cell + 1, next, tail);
+        }
+    }
+
+    //Adds the neighbour to the search if it is not reached yet. Returns the new end of the queue
+    private int visit(int cell, int distance, int tail) {
+        if (distances[cell] != -1)
+            return tail;
+
+        distances[cell] = distance;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+}
@@ -0,0 +1,81 @@
+//************************************************************************************
+// FramePacer.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Keeps the render loop at a target frame rate and measures how long the frames really take.
+// Sleeps for most of the remaining frame time and yields for the last part, so frames are delivered on time
+// without burning a whole core. Frame rate is independent from the simulation tick rate.
+//************************************************************************************
+
+public class FramePacer {
+
+    //Part of the frame that is not slept (Thread.sleep is not precise) in the type of nanosecond
+    private static final long SPIN_NANOS = 1_000_000;
+
+    private final long frameNanos;
+    private long nextFrame;
+    private long lastFrameStart;
+
+    //Measured frame times in the type of nanosecond
+    private long lastFrameTime = 0;
+    private double averageFrameTime = 0;
+    private long worstFrameTime = 0;
+    private long frames = 0;
+
+    public FramePacer(int targetFps) {
+        frameNanos = 1_000_000_000L / Math.max(1, targetFps);
+        nextFrame = System.nanoTime();
+        lastFrameStart = nextFrame;
+    }
+
+    //Waits until the next frame should start and records the time of the previous frame
+    public void waitForNextFrame() throws InterruptedException {
+        nextFrame += frameNanos;
+
+        long remaining = nextFrame - System.nanoTime();
+        if (remaining > SPIN_NANOS)
+            Thread.sleep((remaining - SPIN_NANOS) / 1_000_000, (int) ((remaining - SPIN_NANOS) % 1_000_000));
+        while (nextFrame - System.nanoTime() > 0)
+            Thread.yield();
+
+        //If rendering falls too far behind, starts counting from now instead of rendering the missed frames at once
+        long now = System.nanoTime();
+        if (now - nextFrame > frameNanos * 2)
+            nextFrame = now;
+
+        record(now - lastFrameStart);
+        lastFrameStart = now;
+    }
+
+    //Records the time of one frame
+    private void record(long frameTime) {
+        lastFrameTime = frameTime;
+        averageFrameTime = frames == 0 ? frameTime : averageFrameTime * 0.95 + frameTime * 0.05;
+        worstFrameTime = Math.max(worstFrameTime, frameTime);
+        frames++;
+    }
+
+    public long getTargetFrameTime() {
+        return frameNanos;
+    }
+
+    public long getLastFrameTime() {
+        return lastFrameTime;
+    }
+
+    public double getAverageFrameTime() {
+        return averageFrameTime;
+    }
+
+    public long getWorstFrameTime() {
+        return worstFrameTime;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    //Frames per second calculated from the average frame time
+    public double getFps() {
+        return averageFrameTime == 0 ? 0 : 1_000_000_000.0 / averageFrameTime;
+    }
+}
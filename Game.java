@@ -2,62 +2,55 @@
 // Game.java         Author:Ali Berk Karaarslan     Date:25.04.2023
 //
 // Arcade Shooter Game project.
-// To play it, create AirCraft, Enemy and Friend Objects.(AirCraft is the main player.There can only be one.
-// But there could be multiple Enemy and Friend objects) After that, start all the objects (ex: aircraft.start();)
+// Swing window of the game. Paints the given GameWorld and sends the user input to the world's AirCraft.
+// To play it, create a GameWorld and spawn the aircraft, enemies and friends.(AirCraft is the main player.There can only be one.
+// But there could be multiple enemies and friends) After that, start all of them (ex: world.start(aircraft);)
+// and open a Game window on the world.
 // Game is played with WASD keys and Mouse Buttons.
 //************************************************************************************
 
 import javax.swing.*;
 import javax.swing.event.MouseInputListener;
 import java.awt.*;
+import java.awt.image.BufferStrategy;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.Random;
 
-public class Game extends JFrame {
+public class Game extends JFrame implements GameWorld.GameListener {
 
     MainPanel panel;
 
-    //Refresh time of the screen
-    private double refreshTime = 0.05;
+    //World that is shown in this window
+    GameWorld world;
 
-    //These parameters in the type of second
-    private double bulletMoveWaitTime = 0.1;
-    private double characterMoveWaitTime = 0.5;
-    private double characterShootWaitTime = 1;
+    //Number of frames painted in every second (Independent from the simulation tick rate)
+    private int targetFps;
 
-    //These parameters in the type of pixels
-    private int aircraftSize = 10;
-    private int enemySize = 10;
-    private int friendSize = 10;
-    private int bulletSize = 5;
+    //Keeps the render thread at targetFps and measures the real frame times
+    FramePacer pacer;
 
-    private ArrayList<Character> characters = new ArrayList<>();
-    private ArrayList<Enemy> enemies = new ArrayList<>();
-    private ArrayList<Friend> friends = new ArrayList<>();
-    private ArrayList<Bullet> bullets = new ArrayList<>();
+    //True if the frames are painted by the RasterPainter instead of Graphics calls
+    private boolean raster;
 
-    private AirCraft aircraft = new AirCraft();
-
-    //These garbage avoid the ConcurrentModificationException
-    //Basically when an elements need to be removed, It transferred to correspond garbage ArrayList.
-    //In every refresh time, These items removed from the main ArrayList
-    private boolean thereIsGarbageEnemy = false;
-    private ArrayList<Enemy> garbageEnemy = new ArrayList<>();
-
-    private boolean thereIsGarbageFriend = false;
-    private ArrayList<Friend> garbageFriend = new ArrayList<>();
+    GameOverFrame gameOver = null;
 
-    private boolean thereIsGarbageBullet = false;
-    private ArrayList<Bullet> garbageBullet = new ArrayList<>();
+    //User input is sent to the simulation through this queue (Input handling never waits for the world lock)
+    InputQueue input;
 
-    Color customPurple = new Color(211, 40, 255);
+    public Game(GameWorld world) {
+        this(world, 60);
+    }
 
-    GameOverFrame gameOver = null;
+    public Game(GameWorld world, int targetFps) {
+        this(world, targetFps, false);
+    }
 
-    public Game() {
+    public Game(GameWorld world, int targetFps, boolean raster) {
+        this.world = world;
+        this.targetFps = targetFps;
+        this.raster = raster;
+        input = world.enableInput();
         setDefaultCloseOperation(EXIT_ON_CLOSE);
 
         panel = new MainPanel();
@@ -66,10 +59,35 @@ public class Game extends JFrame {
         pack();
         setLocationRelativeTo(null);
 
-        Thread refresher = new Thread(new RefresherThread());
-        refresher.start();
+        //Replayed games only use the recorded input
+        if (!world.isReplay()) {
+            Controls controls = new Controls();
+            addKeyListener(controls);
+            addMouseListener(controls);
+            panel.addKeyListener(controls);
+            panel.addMouseListener(controls);
+        }
+        world.addListener(this);
 
         setVisible(true);
+
+        //Buffer strategy can only be created after the panel is displayable
+        panel.createBufferStrategy(2);
+        panel.requestFocus();
+
+        Thread renderer = new RenderThread();
+        renderer.start();
+    }
+
+    //Called by the world when the game is over. Closes the window and shows the result
+    @Override
+    public void gameOver(boolean win) {
+        SwingUtilities.invokeLater(() -> {
+            dispose();
+            //If there is no gameOver frame then creates one
+            if (gameOver == null)
+                gameOver = new GameOverFrame(win);
+        });
     }
 
     //GameOverFrame. Pops up win or lose frame
@@ -95,205 +113,171 @@ public class Game extends JFrame {
         }
     }
 
-    //MainPanel of the program. Paints all the elements
-    class MainPanel extends JPanel {
-
-        public MainPanel(){
-            setPreferredSize(new Dimension(500,500));
-        }
-
-        public void paint(Graphics g) {
-            //Calls all the paint methods
-            super.paint(g);
-            paintBullets(g);
-            paintEnemies(g);
-            paintFriends(g);
-            paintAirCraft(g);
-
-            //Drawing grids
-            /*
-            for(int i=0;i<=500;i+=10) {
-                g.setColor(Color.BLACK);
-                g.drawLine(0, i, 500, i);
-                g.drawLine(i, 0, i, 500);
-            }
-             */
-        }
+    //MainPanel of the program. Paints all the elements.
+    //It is painted actively by the RenderThread (Page flipping with a BufferStrategy), Swing repaints are ignored.
+    //Shows the viewport of the world (At most 500x500 pixels around the aircraft)
+    class MainPanel extends Canvas {
 
-        //Paints the aircraft
-        public void paintAirCraft(Graphics g) {
-            g.setColor(aircraft.color);
-            g.fillRect(aircraft.positionX, aircraft.positionY, aircraft.size, aircraft.size);
-        }
+        int viewportWidth = Math.min(500, world.getWidth());
+        int viewportHeight = Math.min(500, world.getHeight());
 
-        //Clears the enemies garbage and then paints all the enemies
-        public void paintEnemies(Graphics g) {
-            synchronized (aircraft) {
+        //Snapshots published by the world after every tick. Painting only reads them (No lock is taken)
+        RenderSnapshot.Exchange snapshots = world.enableSnapshots();
 
-                //If there is garbage then removes it from the enemies and characters ArrayList. Then clears the garbage
-                if (thereIsGarbageEnemy) {
-                    enemies.removeAll(garbageEnemy);
-                    characters.removeAll(garbageEnemy);
-                    thereIsGarbageEnemy = false;
-                    garbageEnemy.clear();
-                }
+        SnapshotPainter painter = new SnapshotPainter();
 
-                //Starts from the end of the ArrayList to avoid ConcurrentModificationException
-                for (int i = enemies.size() - 1; i >= 0; i--) {
-                    if (checkExist(enemies.get(i))) {
-                        g.setColor(enemies.get(i).color);
-                        g.fillRect(enemies.get(i).positionX, enemies.get(i).positionY, enemies.get(i).size, enemies.get(i).size);
-                    }
-                }
-            }
-        }
+        Color background = new Color(238, 238, 238);
 
-        //Clears the friends garbage and then paints all the friends
-        public void paintFriends(Graphics g) {
-            synchronized (aircraft) {
+        //Input time of the last snapshot whose input latency is recorded
+        long measuredInputTime = 0;
 
-                //If there is garbage then removes it from the friends and characters ArrayList. Then clears the garbage
-                if (thereIsGarbageFriend) {
-                    friends.removeAll(garbageFriend);
-                    characters.removeAll(garbageFriend);
-                    thereIsGarbageFriend = false;
-                    garbageFriend.clear();
-                }
+        //Only created in the raster mode
+        RasterPainter rasterPainter = raster ? new RasterPainter(viewportWidth, viewportHeight, background.getRGB()) : null;
 
-                //Starts from the end of the ArrayList to avoid ConcurrentModificationException
-                for (int i = friends.size() - 1; i >= 0; i--) {
-                    if (checkExist(friends.get(i))) {
-                        g.setColor(friends.get(i).color);
-                        g.fillRect(friends.get(i).positionX, friends.get(i).positionY, friends.get(i).size, friends.get(i).size);
+        public MainPanel(){
+            world.setViewportSize(viewportWidth, viewportHeight);
+            setPreferredSize(new Dimension(viewportWidth,viewportHeight));
+            setIgnoreRepaint(true);
+        }
+
+        //Paints the newest snapshot into the back buffer and shows it
+        public void render() {
+            BufferStrategy strategy = getBufferStrategy();
+            if (strategy == null)
+                return;
+
+            RenderSnapshot snapshot = snapshots.acquire();
+            long start = System.nanoTime();
+
+            //Paints again if the buffer contents are lost while painting (ex: window minimized)
+            do {
+                do {
+                    Graphics g = strategy.getDrawGraphics();
+                    try {
+                        g.setColor(background);
+                        g.fillRect(0, 0, getWidth(), getHeight());
+                        if (rasterPainter != null)
+                            g.drawImage(rasterPainter.paint(snapshot), 0, 0, null);
+                        else
+                            painter.paint(g, snapshot);
+                    } finally {
+                        g.dispose();
                     }
-                }
-            }
-        }
+                } while (strategy.contentsRestored());
 
-        //Clears the bullets garbage and then paints all the bullets
-        public void paintBullets(Graphics g) {
-            synchronized (aircraft) {
+                strategy.show();
+            } while (strategy.contentsLost());
 
-                //If there is garbage then removes it from the bullets ArrayList. Then clears the garbage
-                if (thereIsGarbageBullet) {
-                    bullets.removeAll(garbageBullet);
-                    thereIsGarbageBullet = false;
-                    garbageBullet.clear();
-                }
+            Toolkit.getDefaultToolkit().sync();
+            world.getMetrics().recordPaint(start, snapshot.getCount());
 
-                //Starts from the end of the ArrayList to avoid ConcurrentModificationException exception
-                for (int i = bullets.size() - 1; i >= 0; i--) {
-                    if (checkExist(bullets.get(i))) {
-                        g.setColor(bullets.get(i).color);
-                        g.fillRect(bullets.get(i).positionX, bullets.get(i).positionY, bullets.get(i).size, bullets.get(i).size);
-                    }
-                }
+            //First shown frame that contains the result of a new input
+            if (snapshot.inputTime != measuredInputTime) {
+                measuredInputTime = snapshot.inputTime;
+                input.recordLatency(snapshot.inputTime);
             }
         }
     }
 
-    //Refreshes the program in every period (refreshTime) by calling the MainPanel's repaint method.
-    class RefresherThread extends Thread {
+    //Renders the MainPanel targetFps times in every second until the game is over.
+    //Shows the measured frame rate in the title of the window once in every second
+    class RenderThread extends Thread {
         public void run() {
+            pacer = new FramePacer(targetFps);
+            long lastTitleUpdate = System.nanoTime();
 
-            while (checkExist(aircraft)) {
+            while (world.isRunning()) {
                 try {
-                    Thread.sleep((long) (refreshTime * 1000));
-                    panel.repaint();
+                    pacer.waitForNextFrame();
+                    panel.render();
+
+                    if (System.nanoTime() - lastTitleUpdate >= 1_000_000_000L) {
+                        lastTitleUpdate = System.nanoTime();
+                        String status = String.format("Arcade Shooter Game - %.0f FPS", pacer.getFps());
+
+                        //Input to frame latency (Average and worst)
+                        if (input.getLatencyCount() > 0)
+                            status += String.format(" - input %.0f ms (worst %.0f ms)", input.getAverageLatency(), input.getWorstLatency());
+
+                        //Paint time that 99% of the frames painted so far are under
+                        status += String.format(" - paint p99 %.1f ms", world.getMetrics().getPaintP99Millis());
+
+                        //Number of Move and Shoot behaviours running on their own threads (If they don't run in the tick)
+                        BehaviourExecutor behaviours = world.getBehaviourExecutor();
+                        if (behaviours != null)
+                            status += " - " + behaviours.getLiveCount() + (behaviours.isVirtual() ? " virtual" : " platform") + " behaviours";
+                        String title = status;
+                        SwingUtilities.invokeLater(() -> setTitle(title));
+                    }
                 } catch (InterruptedException e) {
                     //throw new RuntimeException(e);
+                } catch (IllegalStateException e) {
+                    //Buffer strategy is gone because the window is closed
+                    break;
                 }
             }
         }
     }
 
-    //Parent class of the AirCraft, Enemy and Friend classes.
-    class Character extends Thread {
-        int positionX;
-        int positionY;
-        int size;
-        Color color;
-        boolean alive = true;
-    }
-
-    //Main player of the program. Extends Character class.
-    class AirCraft extends Character implements KeyListener, MouseInputListener {
+    //Sends the WASD keys and mouse buttons to the world's AirCraft through the input queue.
+    //Aircraft moves in every tick while a key is held (Key repeats of the system are ignored)
+    class Controls implements KeyListener, MouseInputListener {
 
-        public AirCraft() {
-            size = aircraftSize;
-            color = Color.RED;
+        //Movement keys that are held down (Only used by the Swing event thread)
+        boolean[] held = new boolean[4];
 
-            aircraft = this;
-            characters.add(this);
+        //Checks if WASD keys have pressed. If yes then the aircraft starts moving in that direction
+        @Override
+        public void keyPressed(KeyEvent e) {
+            int key = directionOf(e.getKeyCode());
+            if (key == -1 || held[key])
+                return;
 
-            //These inital coordinates avoid a bug
-            positionX = -100;
-            positionY = -100;
+            held[key] = true;
+            input.offer(InputQueue.KEY_DOWN, key);
         }
 
-        public void run() {
-            //Start coordinates of the AirCraft
-            positionX = 250;
-            positionY = 250;
-            addKeyListener(this);
-            addMouseListener(this);
-        }
+        //Aircraft stops moving in the direction of the released key
+        public void keyReleased(KeyEvent e) {
+            int key = directionOf(e.getKeyCode());
+            if (key == -1 || !held[key])
+                return;
 
-        public void deleteAirCraft(Boolean win) {
-            alive = false;
-            dispose();
-            //If there is no gameOver frame then creates one
-            if (gameOver == null)
-                gameOver = new GameOverFrame(win);
+            held[key] = false;
+            input.offer(InputQueue.KEY_UP, key);
         }
 
-        //Checks if WASD keys have pressed. If yes then changes the position of the aircraft
-        @Override
-        public void keyPressed(KeyEvent e) {
-            int key = e.getKeyCode();
-
-            //User pressed the W key. Moves the aircraft 10 pixel up (If it is in the frame)
-            if (key == KeyEvent.VK_W)
-                if (positionY >= 10)
-                    positionY -= 10;
-
-            //User pressed the A key. Moves the aircraft 10 pixel left (If it is in the frame)
-            if (key == KeyEvent.VK_A)
-                if (positionX >= 10)
-                    positionX -= 10;
-
-            //User pressed the S key. Moves the aircraft 10 pixel down (If it is in the frame)
-            if (key == KeyEvent.VK_S)
-                if (positionY <= 480)
-                    positionY += 10;
-
-            //User pressed the D key. Moves the aircraft 10 pixel right (If it is in the frame)
-            if (key == KeyEvent.VK_D)
-                if (positionX <= 480)
-                    positionX += 10;
-
-            panel.repaint();
-            checkCharacterCollision(this);
+        //Direction of the WASD keys (-1 for the other keys)
+        int directionOf(int keyCode) {
+            //User pressed the W key. Moves the aircraft 10 pixel up
+            if (keyCode == KeyEvent.VK_W)
+                return InputQueue.UP;
+
+            //User pressed the A key. Moves the aircraft 10 pixel left
+            if (keyCode == KeyEvent.VK_A)
+                return InputQueue.LEFT;
+
+            //User pressed the S key. Moves the aircraft 10 pixel down
+            if (keyCode == KeyEvent.VK_S)
+                return InputQueue.DOWN;
+
+            //User pressed the D key. Moves the aircraft 10 pixel right
+            if (keyCode == KeyEvent.VK_D)
+                return InputQueue.RIGHT;
+
+            return -1;
         }
 
-        //If user pressed mouse button then creates two bullets. One goes left and other one goes right
+        //If user pressed mouse button then the aircraft shoots (In the next tick)
         @Override
         public void mousePressed(MouseEvent e) {
-            AirCraftBullet bulletLeft = new AirCraftBullet(positionX - bulletSize, positionY, -1);
-            AirCraftBullet bulletRight = new AirCraftBullet(positionX + size, positionY, 1);
-
-            //Adding these bullets to bullets ArrayList
-            bullets.add(bulletLeft);
-            bullets.add(bulletRight);
+            input.offer(InputQueue.SHOOT, 0);
         }
 
         @Override
         public void keyTyped(KeyEvent e) {
         }
 
-        public void keyReleased(KeyEvent e) {
-        }
-
         public void mouseClicked(MouseEvent e) {
         }
 
@@ -312,479 +296,4 @@ public class Game extends JFrame {
         public void mouseMoved(MouseEvent e) {
         }
     }
-
-    //Enemies of the program. Extends Character class.
-    class Enemy extends Character {
-
-        public Enemy() {
-            size = enemySize;
-            color = Color.BLACK;
-
-            //Randomly selects coordinates
-            Random generator = new Random();
-            int possibleX = (generator.nextInt(500) / 10) * 10;
-            int possibleY = (generator.nextInt(500) / 10) * 10;
-
-            //Checks if the coordinates is empty (Looks all the characters' positions)
-            for (Character character : characters) {
-
-                //Continues the process until finds empty coordinates
-                while ((character.positionX == possibleX && character.positionY == possibleY ) || (possibleX==250 && possibleY==250)) {
-                    possibleX = (generator.nextInt(500) / 10) * 10;
-                    possibleY = (generator.nextInt(500) / 10) * 10;
-
-                }
-            }
-
-            //Assigning these empty coordinates
-            positionX = possibleX;
-            positionY = possibleY;
-
-            //Adding this new enemy to enemies and characters ArrayList
-            characters.add(this);
-            enemies.add(this);
-        }
-
-        public void run() {
-            //Starts the Move and Shoot events (Starts the threads)
-            if (checkExist(this)) {
-                new Move(this).start();
-                new Shoot(this).start();
-            }
-        }
-
-        //Removes the enemy from the ArrayLists (Adds to the enemy garbage)
-        public void deleteEnemy() {
-            alive = false;
-            garbageEnemy.add(this);
-            thereIsGarbageEnemy = true;
-            //Checks if all the enemies removed
-            checkWin();
-        }
-    }
-
-    //Friends of the AirCraft(player). Extends Character class.
-    class Friend extends Character {
-
-        public Friend() {
-            size = friendSize;
-            color = Color.GREEN;
-
-            //Randomly selects coordinates
-            Random generator = new Random();
-            int possibleX = (generator.nextInt(500) / 10) * 10;
-            int possibleY = (generator.nextInt(500) / 10) * 10;
-
-            //Checks if the coordinates is empty (Looks all the characters' positions)
-            for (Character character : characters) {
-
-                //Continues the process until finds empty coordinates
-                while ((character.positionX == possibleX && character.positionY == possibleY ) || (possibleX==250 && possibleY==250)) {
-                    possibleX = (generator.nextInt(500) / 10) * 10;
-                    possibleY = (generator.nextInt(500) / 10) * 10;
-                }
-            }
-
-            //Assigning these empty coordinates
-            positionX = possibleX;
-            positionY = possibleY;
-
-            //Adding this new friend to friends and characters ArrayList
-            characters.add(this);
-            friends.add(this);
-        }
-
-        public void run() {
-            //Starts the Move and Shoot events (Starts the threads)
-            if (checkExist(this)) {
-                new Move(this).start();
-                new Shoot(this).start();
-            }
-        }
-
-        //Removes the friend from the ArrayLists (Adds to the friend garbage)
-        public void deleteFriend() {
-            alive = false;
-            garbageFriend.add(this);
-            thereIsGarbageFriend = true;
-        }
-    }
-
-    //Moves the given character in a random direction every period
-    class Move extends Thread {
-
-        //Waits waitTime then moves
-        double waitTime = characterMoveWaitTime;
-        Character character;
-
-        public Move(){}
-        public Move(Character character) {
-            this.character = character;
-        }
-
-        public void run() {
-
-            //Works until player loses the game
-            while (checkExist(aircraft)) {
-                try {
-                    Thread.sleep((long) (waitTime * 1000));
-                    moveOnce(character);
-                    checkCharacterCollision(character);
-
-                } catch (InterruptedException e) {
-                    //throw new RuntimeException(e);
-                }
-            }
-        }
-
-        //Moves the given character in random direction once
-        public void moveOnce(Character character){
-            Random generator = new Random();
-
-            //Randomly selects a direction
-            //0->North   1->West   2->South   3->East
-            int direction = generator.nextInt(4);
-
-            //Moves the character 10 pixel up (If it is in the frame)
-            if (direction == 0)
-                if (character.positionY >= 10)
-                    character.positionY -= 10;
-
-            //Moves the character 10 pixel left (If it is in the frame)
-            if (direction == 1)
-                if (character.positionX >= 10)
-                    character.positionX -= 10;
-
-            //Moves the character 10 pixel down (If it is in the frame)
-            if (direction == 2)
-                if (character.positionY <= 480)
-                    character.positionY += 10;
-
-            //Moves the character 10 pixel right (If it is in the frame)
-            if (direction == 3)
-                if (character.positionX <= 480)
-                    character.positionX += 10;
-
-            checkCharacterCollision(character);
-        }
-    }
-
-    //Shoots the bullets of the given character in every period
-    class Shoot extends Thread {
-
-        //Waits waitTime and shoots
-        double waitTime = characterShootWaitTime;
-        Character character;
-
-        public Shoot(Character character) {
-            this.character = character;
-        }
-
-        public void run() {
-
-            //Works until player loses the game
-            while (checkExist(character)) {
-                try {
-                    Thread.sleep((long) (waitTime * 1005));
-
-                    if (checkExist(character)) {
-                        //Shooting the enemy's bullets
-                        if (character instanceof Enemy) {
-                            EnemyBullet bulletLeft = new EnemyBullet(character.positionX - bulletSize, character.positionY, -1);
-                            EnemyBullet bulletRight = new EnemyBullet(character.positionX + 10, character.positionY, 1);
-                            bullets.add(bulletLeft);
-                            bullets.add(bulletRight);
-                        }
-                        //Shooting the friend's bullets
-                        else if (character instanceof Friend) {
-                            FriendBullet bulletLeft = new FriendBullet(character.positionX - bulletSize, character.positionY, -1);
-                            FriendBullet bulletRight = new FriendBullet(character.positionX + character.size, character.positionY, 1);
-                            bullets.add(bulletLeft);
-                            bullets.add(bulletRight);
-                        }
-                    }
-                } catch (InterruptedException e) {
-                    //throw new RuntimeException(e);
-                }
-            }
-        }
-    }
-
-    //Parent class of the AirCraftBullet, EnemyBullet and FriendBullet classes.
-    class Bullet extends Thread {
-        Color color;
-        int positionX;
-        int positionY;
-        int size = bulletSize;
-        double movementTime = bulletMoveWaitTime;
-        Boolean alive = true;
-
-        //-1 or +1. -1 represents left ,+1 represents right
-        int type;
-
-        public void run() {
-            try {
-
-                //Every period moves the bullet(10 px) and checks collision
-                while (isValid()) {
-                    Thread.sleep((long) (movementTime * 1000));
-                    checkCollision();
-                    positionX += 10 * type;
-                }
-
-            } catch (InterruptedException e) {
-                //throw new RuntimeException(e);
-            } finally {
-                deleteBullet();
-            }
-        }
-
-        //Checks if the bullet is in the frame.
-        public boolean isValid() {
-            if (positionX <= 514 - size && positionX >= 0) {
-                if (positionY <= 537 - size && positionY >= 0) {
-                    if (checkExist(this))
-                        return true;
-                }
-            }
-            return false;
-        }
-
-        //Removes the enemy from the ArrayLists (Adds to the enemy garbage)
-        public void deleteBullet() {
-            alive = false;
-            garbageBullet.add(this);
-            thereIsGarbageBullet = true;
-        }
-
-        //Checks the bullet collision with characters
-        public void checkCollision() {
-        }
-    }
-
-    //AirCraft's Bullet. Extends Bullet class.
-    class AirCraftBullet extends Bullet {
-
-        public AirCraftBullet(int positionX, int positionY, int type) {
-            color = Color.ORANGE;
-            this.positionX = positionX;
-            this.positionY = positionY;
-            this.type = type;
-            start();
-        }
-
-        //Checks all the characters. If it has collision with bullet then makes corresponded process
-        @Override
-        public void checkCollision() {
-            try {
-                for (Character curr : characters) {
-
-                    //Checks if they exits
-                    if (checkExist(curr) && checkExist(this)) {
-
-                        //Checks if they have collision
-                        if (curr.positionX <= positionX && curr.positionX + curr.size > positionX) {
-                            if (curr.positionY <= positionY && curr.positionY + curr.size > positionY) {
-
-                                //If the character is Enemy. Then deletes the enemy and itself (bullet)
-                                if (curr instanceof Enemy) {
-                                    deleteBullet();
-                                    ((Enemy) curr).deleteEnemy();
-
-                                }//If the character is Friend or AirCraft. Then deletes itself (bullet)
-                                else if (curr instanceof Friend || curr instanceof AirCraft) {
-                                    deleteBullet();
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                //throw new RuntimeException(e);
-            }
-        }
-    }
-
-    //Enemy's Bullet. Extends Bullet class.
-    class EnemyBullet extends Bullet {
-
-        public EnemyBullet(int positionX, int positionY, int type) {
-            color = Color.BLUE;
-            this.positionX = positionX;
-            this.positionY = positionY;
-            this.type = type;
-            start();
-        }
-
-        //Checks all the characters. If it has collision with bullet then makes corresponded process
-        @Override
-        public void checkCollision() {
-            try {
-                for (Character curr : characters) {
-
-                    //Checks if they exits
-                    if (checkExist(curr) && checkExist(this)) {
-
-                        //Checks if they have collision
-                        if (curr.positionX <= positionX && curr.positionX + curr.size > positionX) {
-                            if (curr.positionY <= positionY && curr.positionY + curr.size > positionY) {
-
-                                //If the character is Friend. Then deletes the Friend and itself (bullet)
-                                if (curr instanceof Friend) {
-                                    deleteBullet();
-                                    ((Friend) curr).deleteFriend();
-
-                                }//If the character is AirCraft. Then deletes the AirCraft and itself (bullet)
-                                else if (curr instanceof AirCraft) {
-                                    deleteBullet();
-                                    aircraft.deleteAirCraft(false);
-
-                                }//If the character is Enemy. Then deletes itself (bullet)
-                                else if (curr instanceof Enemy) {
-                                    deleteBullet();
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                //throw new RuntimeException(e);
-            }
-        }
-    }
-
-    //Friend's Bullet. Extends Bullet class.
-    class FriendBullet extends Bullet {
-
-        public FriendBullet(int positionX, int positionY, int type) {
-            color = customPurple;
-            this.positionX = positionX;
-            this.positionY = positionY;
-            this.type = type;
-            start();
-        }
-
-        //Checks all the characters. If it has collision with bullet then makes corresponded process
-        @Override
-        public void checkCollision() {
-            try {
-                for (Character curr : characters) {
-
-                    //Checks if they exits
-                    if (checkExist(curr) && checkExist(this)) {
-
-                        //Checks if they have collision
-                        if (curr.positionX <= positionX && curr.positionX + curr.size > positionX) {
-                            if (curr.positionY <= positionY && curr.positionY + curr.size > positionY) {
-
-                                //If the character is Enemy. Then deletes the Enemy and itself (bullet)
-                                if (curr instanceof Enemy) {
-                                    deleteBullet();
-                                    ((Enemy) curr).deleteEnemy();
-
-                                }//If the character is Friend or AirCraft. Then deletes itself (bullet)
-                                else if (curr instanceof Friend || curr instanceof AirCraft) {
-                                    deleteBullet();
-                                }
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                //throw new RuntimeException(e);
-            }
-        }
-    }
-
-    //Checks if the given object (Character or Fire)
-    public boolean checkExist(Object object) {
-
-        //Checks if the object is null (avoid NullPointerException)
-        if (object != null) {
-            //Object is Character
-            if (object instanceof Character)
-                return ((Character) object).alive;
-
-                //Object is Bullet
-            else if (object instanceof Bullet)
-                return ((Bullet) object).alive;
-        }
-        return false;
-    }
-
-    //Checks if there is any enemy left. If yes then returns false
-    public boolean checkWin() {
-
-        //Checks if game is still going
-        if (checkExist(aircraft)) {
-            synchronized (aircraft) {
-
-                //Checks the enemies ArrayList. If there is an enemy then returns false
-                for (int i = enemies.size() - 1; i >= 0; i--) {
-                    if (checkExist(enemies.get(i))) {
-                        return false;
-                    }
-                }
-
-                //If there is no enemies left then ends the game with win (deletes aircraft)
-                aircraft.deleteAirCraft(true);
-                return true;
-            }
-        }
-        return false;
-    }
-
-    //Checks the characters collision
-    public void checkCharacterCollision(Character character) {
-        synchronized (aircraft) {
-
-            //Checks all the characters
-            for (Character curr : characters) {
-
-                //Skips itself
-                if (!curr.equals(character)) {
-
-                    //If they exits
-                    if (checkExist(curr) && checkExist(character)) {
-
-                        //If they have collision
-                        if (curr.positionX <= character.positionX && curr.positionX + curr.size > character.positionX) {
-                            if (curr.positionY <= character.positionY && curr.positionY + curr.size > character.positionY) {
-
-                                //If Enemy and Friend has collision. Then deletes them both
-                                if (curr instanceof Friend && character instanceof Enemy) {
-                                    ((Friend) curr).deleteFriend();
-                                    ((Enemy) character).deleteEnemy();
-                                }
-                                //If Enemy and AirCraft has collision. Then ends the game with lose (deletes aircraft)
-                                else if (curr instanceof Enemy && character instanceof AirCraft) {
-                                    aircraft.deleteAirCraft(false);
-                                }
-                                else if (curr instanceof AirCraft && character instanceof Enemy) {
-                                    aircraft.deleteAirCraft(false);
-                                }
-
-                                //If Enemy and Enemy has collision. Then moves one of them in random direction
-                                else if (curr instanceof Enemy && character instanceof Enemy) {
-                                    new Move().moveOnce(curr);
-                                }
-                                //If Friend and Friend has collision. Then moves one of them in random direction
-                                else if (curr instanceof Friend && character instanceof Friend) {
-                                    new Move().moveOnce(curr);
-                                }
-                                //If Friend and AirCraft has collision. Then moves Friend in random direction
-                                else if (curr instanceof Friend && character instanceof AirCraft) {
-                                    new Move().moveOnce(curr);
-                                }
-                                else if (curr instanceof AirCraft && character instanceof Friend) {
-                                    new Move().moveOnce(character);
-                                }
-
-                            }
-                        }
-                    }
-                }
-            }
-        }
-    }
 }
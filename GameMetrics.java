@@ -0,0 +1,362 @@
+//************************************************************************************
+// GameMetrics.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Measurements of a GameWorld while it runs: Histograms of the tick and paint times, gauges of the living
+// characters, bullets and threads, and counters of the collision checks, kills and swallowed exceptions.
+// They can be read with the getters, with a JMX client after register() (ex: jconsole) and as the custom JFR
+// events of the game (Recorded when a flight recording is running, ex: java -XX:StartFlightRecording ...).
+// Event classes are only loaded after the flight recorder is started (Loading them takes a few hundred ms).
+// Counters can be changed by any thread, every histogram is recorded by one thread (Tick or render thread).
+//************************************************************************************
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameMetrics implements GameMetricsMBean {
+
+    private final GameWorld world;
+
+    private final LatencyHistogram tickTime = new LatencyHistogram();
+    private final LatencyHistogram paintTime = new LatencyHistogram();
+
+    //Histograms are only cleared by the threads that record them, so reset() asks them to do it
+    private volatile boolean tickResetRequested = false;
+    private volatile boolean paintResetRequested = false;
+
+    //Collision queries of the bullets and characters
+    private final AtomicLong collisionChecks = new AtomicLong();
+    private final AtomicLong enemiesKilled = new AtomicLong();
+    private final AtomicLong friendsKilled = new AtomicLong();
+    private final AtomicLong swallowedExceptions = new AtomicLong();
+    //Characters moved away from another character by the overlap resolution
+    private final AtomicLong overlapMoves = new AtomicLong();
+    private volatile String lastSwallowedException = "";
+
+    //Name of the MBean after register() (null if it is not registered)
+    private ObjectName name;
+
+    public GameMetrics(GameWorld world) {
+        this.world = world;
+    }
+
+    //Registers the metrics to the platform MBean server with the given name (ex: "world"). Shown as ArcadeShooter/GameMetrics/name
+    public void register(String worldName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            name = new ObjectName("ArcadeShooter:type=GameMetrics,name=" + ObjectName.quote(worldName));
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            //Game runs without JMX
+            name = null;
+        }
+    }
+
+    public void unregister() {
+        if (name == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            //Already unregistered
+        }
+        name = null;
+    }
+
+    //Starts the JFR event of a tick (Ended by endTick). Null if the flight recorder is not started
+    TickEvent beginTick() {
+        if (!FlightRecorder.isInitialized())
+            return null;
+
+        TickEvent event = new TickEvent();
+        event.begin();
+        return event;
+    }
+
+    //Records the duration of the tick that started at the given time
+    void endTick(TickEvent event, long startNanos, long tick, int bullets) {
+        if (tickResetRequested) {
+            tickResetRequested = false;
+            tickTime.reset();
+        }
+        tickTime.record(System.nanoTime() - startNanos);
+
+        if (event != null && event.shouldCommit()) {
+            event.tick = tick;
+            event.enemies = world.getEnemyCount();
+            event.friends = world.getFriendCount();
+            event.bullets = bullets;
+            event.commit();
+        }
+    }
+
+    //Records the duration of a painted frame with the given number of rectangles (Characters and bullets)
+    public void recordPaint(long startNanos, int rectangles) {
+        long nanos = System.nanoTime() - startNanos;
+        if (paintResetRequested) {
+            paintResetRequested = false;
+            paintTime.reset();
+        }
+        paintTime.record(nanos);
+
+        if (!FlightRecorder.isInitialized())
+            return;
+
+        PaintEvent event = new PaintEvent();
+        if (event.isEnabled()) {
+            event.rectangles = rectangles;
+            event.paintNanos = nanos;
+            event.commit();
+        }
+    }
+
+    void collisionChecked(int checks) {
+        collisionChecks.addAndGet(checks);
+    }
+
+    void overlapMoved() {
+        overlapMoves.incrementAndGet();
+    }
+
+    void enemyKilled() {
+        enemiesKilled.incrementAndGet();
+    }
+
+    void friendKilled() {
+        friendsKilled.incrementAndGet();
+    }
+
+    //Counts an exception that the game catches and continues (It is also a JFR event)
+    void exceptionSwallowed(Exception e, String where) {
+        swallowedExceptions.incrementAndGet();
+        lastSwallowedException = where + ": " + e;
+
+        if (!FlightRecorder.isInitialized())
+            return;
+
+        SwallowedExceptionEvent event = new SwallowedExceptionEvent();
+        if (event.isEnabled()) {
+            event.where = where;
+            event.exception = e.toString();
+            event.commit();
+        }
+    }
+
+    public LatencyHistogram getTickTime() {
+        return tickTime;
+    }
+
+    public LatencyHistogram getPaintTime() {
+        return paintTime;
+    }
+
+    //One line summary of the metrics (ex: printed at the end of a headless game)
+    public String summary() {
+        return String.format("ticks %d, tick mean %.3f ms, p99 %.3f ms, max %.3f ms, collision checks %d, "
+                        + "enemies killed %d, friends killed %d, swallowed exceptions %d",
+                getTicks(), getTickMeanMillis(), getTickP99Millis(), getTickMaxMillis(), getCollisionChecks(),
+                getEnemiesKilled(), getFriendsKilled(), getSwallowedExceptions());
+    }
+
+    private static double millis(double nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @Override
+    public long getTicks() {
+        return tickTime.getCount();
+    }
+
+    @Override
+    public double getTickMeanMillis() {
+        return millis(tickTime.getMean());
+    }
+
+    @Override
+    public double getTickP50Millis() {
+        return millis(tickTime.getPercentile(50));
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return millis(tickTime.getPercentile(99));
+    }
+
+    @Override
+    public double getTickP999Millis() {
+        return millis(tickTime.getPercentile(99.9));
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return millis(tickTime.getMax());
+    }
+
+    @Override
+    public long getFrames() {
+        return paintTime.getCount();
+    }
+
+    @Override
+    public double getPaintMeanMillis() {
+        return millis(paintTime.getMean());
+    }
+
+    @Override
+    public double getPaintP50Millis() {
+        return millis(paintTime.getPercentile(50));
+    }
+
+    @Override
+    public double getPaintP99Millis() {
+        return millis(paintTime.getPercentile(99));
+    }
+
+    @Override
+    public double getPaintP999Millis() {
+        return millis(paintTime.getPercentile(99.9));
+    }
+
+    @Override
+    public double getPaintMaxMillis() {
+        return millis(paintTime.getMax());
+    }
+
+    @Override
+    public int getEnemies() {
+        return world.getEnemyCount();
+    }
+
+    @Override
+    public int getFriends() {
+        return world.getFriendCount();
+    }
+
+    @Override
+    public int getBullets() {
+        return world.getBulletCount();
+    }
+
+    //Characters in the dormant chunks
+    @Override
+    public int getSleepingCharacters() {
+        return world.getSleepingCount();
+    }
+
+    //Move and Shoot behaviours that run on their own threads (0 if they run in the tick)
+    @Override
+    public int getBehaviourThreads() {
+        BehaviourExecutor behaviours = world.getBehaviourExecutor();
+        return behaviours == null ? 0 : behaviours.getLiveCount();
+    }
+
+    @Override
+    public int getUpdateThreads() {
+        return world.getUpdateThreads();
+    }
+
+    @Override
+    public long getCollisionChecks() {
+        return collisionChecks.get();
+    }
+
+    @Override
+    public long getOverlapMoves() {
+        return overlapMoves.get();
+    }
+
+    @Override
+    public int getPendingOverlaps() {
+        return world.getPendingOverlaps();
+    }
+
+    @Override
+    public long getEnemiesKilled() {
+        return enemiesKilled.get();
+    }
+
+    @Override
+    public long getFriendsKilled() {
+        return friendsKilled.get();
+    }
+
+    @Override
+    public long getSwallowedExceptions() {
+        return swallowedExceptions.get();
+    }
+
+    @Override
+    public String getLastSwallowedException() {
+        return lastSwallowedException;
+    }
+
+    @Override
+    public void reset() {
+        tickResetRequested = true;
+        paintResetRequested = true;
+        collisionChecks.set(0);
+        enemiesKilled.set(0);
+        friendsKilled.set(0);
+        swallowedExceptions.set(0);
+        overlapMoves.set(0);
+        lastSwallowedException = "";
+    }
+
+    //JFR event of a tick. Its duration is the time of the tick
+    @Name("ArcadeShooter.Tick")
+    @Label("Tick")
+    @Category("Arcade Shooter")
+    @Description("One tick of the simulation")
+    static class TickEvent extends Event {
+        @Label("Tick")
+        long tick;
+
+        @Label("Enemies")
+        int enemies;
+
+        @Label("Friends")
+        int friends;
+
+        @Label("Bullets")
+        int bullets;
+    }
+
+    //JFR event of a painted frame. Painting happens on the render thread, so it only has the paint time
+    @Name("ArcadeShooter.Paint")
+    @Label("Paint")
+    @Category("Arcade Shooter")
+    @Description("One frame painted by the render thread")
+    static class PaintEvent extends Event {
+        @Label("Rectangles")
+        int rectangles;
+
+        @Label("Paint Time")
+        @Timespan
+        long paintNanos;
+    }
+
+    //JFR event of an exception that is caught and ignored by the game
+    @Name("ArcadeShooter.SwallowedException")
+    @Label("Swallowed Exception")
+    @Category("Arcade Shooter")
+    static class SwallowedExceptionEvent extends Event {
+        @Label("Where")
+        String where;
+
+        @Label("Exception")
+        String exception;
+    }
+}
@@ -0,0 +1,62 @@
+//************************************************************************************
+// GameMetricsMBean.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// JMX view of the GameMetrics (Shown by jconsole, VisualVM or any other JMX client).
+// Durations are in milliseconds.
+//************************************************************************************
+
+public interface GameMetricsMBean {
+
+    long getTicks();
+
+    double getTickMeanMillis();
+
+    double getTickP50Millis();
+
+    double getTickP99Millis();
+
+    double getTickP999Millis();
+
+    double getTickMaxMillis();
+
+    long getFrames();
+
+    double getPaintMeanMillis();
+
+    double getPaintP50Millis();
+
+    double getPaintP99Millis();
+
+    double getPaintP999Millis();
+
+    double getPaintMaxMillis();
+
+    int getEnemies();
+
+    int getFriends();
+
+    int getBullets();
+
+    int getSleepingCharacters();
+
+    int getBehaviourThreads();
+
+    int getUpdateThreads();
+
+    long getCollisionChecks();
+
+    long getOverlapMoves();
+
+    int getPendingOverlaps();
+
+    long getEnemiesKilled();
+
+    long getFriendsKilled();
+
+    long getSwallowedExceptions();
+
+    String getLastSwallowedException();
+
+    //Clears the histograms and the counters
+    void reset();
+}
@@ -0,0 +1,1528 @@
+//************************************************************************************
+// GameWorld.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Simulation core of the Arcade Shooter Game. Owns all the characters and bullets,
+// collision and win/lose logic. Does not need a display, Game (Swing window) is only an optional view on top of it.
+// Characters are kept in archetype columns (CharacterStore) and bullets in a BulletStore, the world only passes their
+// slots around. To play it, spawn the aircraft, enemies and friends and start them. After that start the world
+// (start() runs in real time, runHeadless() runs as fast as possible)
+//************************************************************************************
+
+import java.awt.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GameWorld {
+
+    //Listener of the game events (ex: Game window pops up the win or lose frame when the game is over).
+    //Events are sent from the simulation thread while the world lock is held
+    public interface GameListener {
+        void gameOver(boolean win);
+
+        //An enemy is deleted. enemiesLeft is the number of living enemies after it
+        default void enemyKilled(int enemiesLeft) {
+        }
+
+        //A friend is deleted. friendsLeft is the number of living friends after it
+        default void friendKilled(int friendsLeft) {
+        }
+    }
+
+    //States of the game. Game starts RUNNING and moves to WON or LOST only once
+    public static final int RUNNING = 0;
+    public static final int WON = 1;
+    public static final int LOST = 2;
+
+    //Length of one simulation step. The whole game is advanced once in every tickTime (In the type of second)
+    double tickTime = 0.05;
+
+    //These parameters in the type of second
+    private double bulletMoveWaitTime = 0.1;
+    private double characterMoveWaitTime = 0.5;
+    private double characterShootWaitTime = 1.005;
+
+    //Same wait times expressed as number of ticks (Calculated in the constructor)
+    private int bulletMoveTicks;
+    private int characterMoveTicks;
+    private int characterShootTicks;
+
+    //Size of the world in the type of pixels (Can be much bigger than the window, window shows the viewport)
+    private final int width;
+    private final int height;
+
+    //Start position of the aircraft (Center cell of the world)
+    private final int startX;
+    private final int startY;
+
+    //Part of the world that is put into the snapshots. It follows the aircraft (Whole world by default)
+    private int viewportWidth;
+    private int viewportHeight;
+
+    //These parameters in the type of pixels
+    private int aircraftSize = 10;
+    private int enemySize = 10;
+    private int friendSize = 10;
+    private int bulletSize = 5;
+
+    //All the characters (AirCraft, enemies and friends). Deleted characters are removed at the end of every tick
+    CharacterStore characters = new CharacterStore(64);
+    BulletStore bullets = new BulletStore(256);
+
+    //Slot of the aircraft (-1 until it is spawned)
+    int aircraft = -1;
+
+    //Characters are indexed by their top left corner in 10px cells (Same as the movement step)
+    SpatialGrid grid;
+
+    //Living bullets are indexed by their slots in bigger cells (A bullet changes its cell only in every fifth step).
+    //Only used to find the bullets in the viewport
+    SpatialGrid bulletGrid;
+
+    //Occupied and empty cells of the same lattice. New characters are placed into the empty cells
+    OccupancyMap occupancy;
+
+    //Seed of the world. All the random decisions of the simulation come from it, so a world with the same seed
+    //and the same input plays the same game
+    private final long seed;
+
+    //Selects the coordinates of the new characters
+    private Rng spawnGenerator;
+
+    //Selects the directions of the character moves
+    private Rng moveGenerator;
+
+    //All the moves, shots and bullet steps are timers of this wheel
+    TimingWheel timers = new TimingWheel(256, 256);
+
+    //Kinds of the timers. Target of a MOVE or SHOOT timer is the slot of the character, target of a BULLET timer is the bullet slot
+    static final int MOVE_TIMER = 0;
+    static final int SHOOT_TIMER = 1;
+    static final int BULLET_TIMER = 2;
+
+    //Selects the first delays of the move and shoot timers and their jitter
+    private Rng cadenceGenerator;
+
+    //Random ticks (0 to cadenceJitter) added to every move and shoot period, so large waves don't act on the same tick
+    private int cadenceJitter = 0;
+
+    //Pursuit modes (Bits of setPursuit). Enemies move towards the aircraft and friends towards the nearest enemy
+    public static final int PURSUIT_ENEMIES = 1;
+    public static final int PURSUIT_FRIENDS = 2;
+    private int pursuit = 0;
+
+    //Flow fields of the pursuing characters (null if their pursuit is off). Targets of the friend field are taken again
+    //at most once in a tick (At the first friend move) if an enemy changed its cell, spawned or died after the last time
+    //(friendTargetsChanged). Enemy field only has the aircraft as its target (Nothing is searched)
+    private FlowField enemyField;
+    private FlowField friendField;
+    private boolean friendTargetsChanged = true;
+    private long friendTargetsTick = -1;
+
+    //Characters that have to move away from another character. They are moved at the end of the tick, at most
+    //overlapBudget of them in a tick (The rest waits for the next tick)
+    private OverlapQueue overlaps = new OverlapQueue();
+    private int overlapBudget = 256;
+
+    //Chunks of the world that are far from the aircraft are dormant (null if every chunk is always active).
+    //Characters in them sleep until the aircraft comes near, then they catch up at most MAX_CATCH_UP_MOVES moves at once
+    static final int CHUNK_SIZE = 160;
+    static final int MAX_CATCH_UP_MOVES = 32;
+    private ChunkMap chunks;
+    private int[] wokenChunks;
+
+    //Ids found by the collision queries. Used like a stack so that nested collision checks
+    //(ex: checkCharacterCollision -> moveOnce -> checkCharacterCollision) don't overwrite each other
+    private int[] queryBuffer = new int[64];
+    private int queryTop = 0;
+
+    Color customPurple = new Color(211, 40, 255);
+
+    //Colors of the bullets by their owners (BulletStore.AIRCRAFT, BulletStore.ENEMY, BulletStore.FRIEND)
+    Color[] bulletColors = {Color.ORANGE, Color.BLUE, customPurple};
+
+    //Colors and sizes of the characters by their archetypes (CharacterStore.AIRCRAFT, CharacterStore.ENEMY, CharacterStore.FRIEND)
+    private int[] characterColors = {Color.RED.getRGB(), Color.BLACK.getRGB(), Color.GREEN.getRGB()};
+    private int[] characterSizes;
+
+    //Every access to the entity lists from outside of the simulation (ex: painting, user input) holds this lock
+    final Object lock = new Object();
+
+    //Number of ticks simulated so far
+    private long tickCount = 0;
+
+    //Number of living enemies and friends. Updated when they are created and deleted, so checking the win is constant time
+    private int livingEnemies = 0;
+    private int livingFriends = 0;
+
+    //State of the game (RUNNING, WON or LOST)
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private ArrayList<GameListener> listeners = new ArrayList<>();
+
+    //Thread that advances the world in real time (null in headless mode)
+    private SimulationThread simulation;
+
+    //Runs the Move and Shoot behaviours on their own (Platform or virtual) threads. Null in the tick mode
+    private BehaviourExecutor behaviours;
+
+    //Snapshots for the painter. Null until a view asks for them (Headless runs don't build snapshots)
+    private RenderSnapshot.Exchange snapshots;
+
+    //User input for the aircraft. Null until a view asks for it (Drained at the start of every tick)
+    private InputQueue input;
+
+    //Movement keys that are held down and the ones pressed since the last tick (Bits of InputQueue.UP, LEFT, DOWN, RIGHT).
+    //A key that is pressed and released between two ticks still moves the aircraft once
+    private int heldKeys = 0;
+    private int pressedKeys = 0;
+
+    //Time of the oldest input event of the last tick that had input. Copied into the snapshots for the latency measurement
+    private long lastInputTime = 0;
+
+    //Writes the applied input events into a file (null if the game is not recorded)
+    private InputRecorder recorder;
+
+    //Gives the recorded input events to the input queue (null if the game is not a replay)
+    private ReplayPlayer replay;
+
+    //Bullets that step in the current tick. Their collision queries run in parallel when there are at least
+    //parallelThreshold of them and the world has more than one update thread
+    private ParallelBulletQuery parallel;
+    private int[] steppingBullets = new int[256];
+    private int parallelThreshold = 1024;
+
+    //Tick times, counters and gauges of the world (Also shown with JMX and JFR)
+    final GameMetrics metrics = new GameMetrics(this);
+
+    //Writes the kills, end of the game, shots, bullet hits and swallowed exceptions into a ring file (null if they are not recorded)
+    private EventRecorder events;
+
+    public GameWorld() {
+        this(500, 500);
+    }
+
+    public GameWorld(int width, int height) {
+        this(width, height, System.nanoTime());
+    }
+
+    public GameWorld(int width, int height, long seed) {
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        viewportWidth = width;
+        viewportHeight = height;
+        startX = width / 2 / 10 * 10;
+        startY = height / 2 / 10 * 10;
+
+        characterSizes = new int[]{aircraftSize, enemySize, friendSize};
+
+        grid = new SpatialGrid(width, height, 10);
+        bulletGrid = new SpatialGrid(width, height, 50);
+        occupancy = new OccupancyMap(width, height, 10);
+
+        bulletMoveTicks = toTicks(bulletMoveWaitTime);
+        characterMoveTicks = toTicks(characterMoveWaitTime);
+        characterShootTicks = toTicks(characterShootWaitTime);
+
+        //Start position of the aircraft is never given to the other characters
+        occupancy.reserve(startX, startY);
+
+        //One stream for every part of the simulation, all of them derived from the seed
+        Rng random = new Rng(seed);
+        spawnGenerator = random.split();
+        moveGenerator = random.split();
+        cadenceGenerator = random.split();
+        timers.setRandom(cadenceGenerator);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    //Sets the number of threads that run the collision queries of the bullets (1 or less updates serially).
+    //Result of the game is the same with any number of threads. Threads of the previous setting are stopped
+    public void setUpdateThreads(int threads) {
+        synchronized (lock) {
+            if (parallel != null)
+                parallel.shutdown();
+            parallel = threads > 1 ? new ParallelBulletQuery(this, threads) : null;
+        }
+    }
+
+    //Number of threads that update the bullets (1 if they are updated serially)
+    public int getUpdateThreads() {
+        ParallelBulletQuery parallel = this.parallel;
+        return parallel == null ? 1 : parallel.getThreads();
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    //Sets the smallest number of stepping bullets in a tick that are updated in parallel (Fewer are updated serially)
+    public void setParallelThreshold(int bullets) {
+        parallelThreshold = Math.max(1, bullets);
+    }
+
+    //Records the input events of the game with the recorder (Set before the world starts)
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    //Replays the input events of a recorded game (Set before the world starts, the world is created with the
+    //parameters of the recorded one)
+    public void setReplay(ReplayPlayer replay) {
+        enableInput();
+        this.replay = replay;
+    }
+
+    //Records the gameplay events with the event recorder (Set before the world starts)
+    public void setEventRecorder(EventRecorder events) {
+        this.events = events;
+    }
+
+    public EventRecorder getEventRecorder() {
+        return events;
+    }
+
+    //True if the input comes from a recorded game (User input is not used)
+    public boolean isReplay() {
+        return replay != null;
+    }
+
+    //Checksum of the positions of all the characters and bullets. Used to check that a replay repeats the recorded game
+    public long checksum() {
+        synchronized (lock) {
+            long hash = tickCount;
+            for (int slot = 0; slot < characters.getSlotCount(); slot++)
+                hash = hash * 31 + (checkExist(slot) ? characters.positionX(slot) * 65536L + characters.positionY(slot) : -1);
+            for (int i = 0; i < bullets.getHighWater(); i++) {
+                if (bullets.alive[i])
+                    hash = hash * 31 + bullets.positionX[i] * 65536L + bullets.positionY[i];
+            }
+            return Rng.mix(hash);
+        }
+    }
+
+    //Writes the whole state of the world into a snapshot (WorldSnapshot.save calls it with the lock held, between two
+    //ticks). Flow fields are not written, they are searched again from the positions after loading
+    void save(WorldSnapshot.Output output) {
+        //Threads of the behaviour executor can't be saved
+        if (behaviours != null)
+            throw new IllegalStateException("Only the worlds whose behaviours run in the tick can be saved");
+
+        output.putLong(tickCount);
+        output.putInt(state.get());
+        output.putInt(aircraft);
+        output.putInt(livingEnemies);
+        output.putInt(livingFriends);
+        output.putInt(cadenceJitter);
+        output.putInt(overlapBudget);
+        output.putInt(pursuit);
+        output.putInt(getDormancy());
+        output.putInt(heldKeys);
+        output.putInt(pressedKeys);
+        output.putLong(spawnGenerator.getState());
+        output.putLong(moveGenerator.getState());
+        output.putLong(cadenceGenerator.getState());
+
+        characters.save(output);
+        bullets.save(output);
+        timers.save(output);
+        grid.save(output);
+        bulletGrid.save(output);
+        occupancy.save(output);
+        overlaps.save(output);
+        if (chunks != null)
+            chunks.save(output);
+    }
+
+    //Replaces the state of a new world (Created with the size and seed of the saved one) with a snapshot written by save
+    void load(WorldSnapshot.Input input) {
+        tickCount = input.getLong();
+        state.set(input.getInt());
+        aircraft = input.getInt();
+        livingEnemies = input.getInt();
+        livingFriends = input.getInt();
+        cadenceJitter = input.getInt();
+        overlapBudget = input.getInt();
+        setPursuit(input.getInt());
+        setDormancy(input.getInt());
+        heldKeys = input.getInt();
+        pressedKeys = input.getInt();
+        spawnGenerator.setState(input.getLong());
+        moveGenerator.setState(input.getLong());
+        cadenceGenerator.setState(input.getLong());
+
+        characters.load(input);
+        bullets.load(input);
+        timers.load(input);
+        grid.load(input);
+        bulletGrid.load(input);
+        occupancy.load(input);
+        overlaps.load(input);
+        if (chunks != null)
+            chunks.load(input);
+    }
+
+    //Sets the size of the part of the world that is put into the snapshots (ex: size of the window).
+    //Viewport is centered on the aircraft and stays inside the world
+    public void setViewportSize(int width, int height) {
+        synchronized (lock) {
+            viewportWidth = Math.max(1, Math.min(width, this.width));
+            viewportHeight = Math.max(1, Math.min(height, this.height));
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    //Left edge of the viewport in the world
+    public int getViewportX() {
+        int center = aircraft == -1 ? startX : characters.positionX(aircraft) + aircraftSize / 2;
+        return Math.max(0, Math.min(width - viewportWidth, center - viewportWidth / 2));
+    }
+
+    //Top edge of the viewport in the world
+    public int getViewportY() {
+        int center = aircraft == -1 ? startY : characters.positionY(aircraft) + aircraftSize / 2;
+        return Math.max(0, Math.min(height - viewportHeight, center - viewportHeight / 2));
+    }
+
+    //Sets the maximum number of random ticks added to every move and shoot period of the characters started after it
+    public void setCadenceJitter(int ticks) {
+        cadenceJitter = Math.max(0, ticks);
+    }
+
+    //Selects which characters follow a flow field instead of moving randomly (PURSUIT_ENEMIES, PURSUIT_FRIENDS or both).
+    //Has to be called before the game starts (Recorded games keep it in the file)
+    public void setPursuit(int pursuit) {
+        synchronized (lock) {
+            this.pursuit = pursuit;
+            enemyField = (pursuit & PURSUIT_ENEMIES) != 0 ? new FlowField(width, height, 10) : null;
+            friendField = (pursuit & PURSUIT_FRIENDS) != 0 ? new FlowField(width, height, 10) : null;
+            friendTargetsChanged = true;
+            friendTargetsTick = -1;
+        }
+    }
+
+    public int getPursuit() {
+        return pursuit;
+    }
+
+    //Makes the chunks more than radius chunks (CHUNK_SIZE pixels) away from the aircraft dormant (0 turns it off).
+    //Has to be called before the game starts (Recorded games keep it in the file)
+    public void setDormancy(int radius) {
+        synchronized (lock) {
+            chunks = radius > 0 ? new ChunkMap(width, height, CHUNK_SIZE, radius) : null;
+            wokenChunks = radius > 0 ? new int[chunks.getWindowSize()] : null;
+        }
+    }
+
+    public int getDormancy() {
+        return chunks == null ? 0 : chunks.getRadius();
+    }
+
+    //Number of characters sleeping in the dormant chunks
+    public int getSleepingCount() {
+        ChunkMap chunks = this.chunks;
+        return chunks == null ? 0 : chunks.getSleeping();
+    }
+
+    //Sets the maximum number of overlap checks and moves of the characters in a tick
+    public void setOverlapBudget(int budget) {
+        overlapBudget = Math.max(1, budget);
+    }
+
+    //Number of characters waiting to move away from another character
+    public int getPendingOverlaps() {
+        return overlaps.size();
+    }
+
+    //Converts the given time (In the type of second) to the number of ticks. Every period takes at least one tick
+    private int toTicks(double seconds) {
+        return Math.max(1, (int) Math.round(seconds / tickTime));
+    }
+
+    //Creates the given number of enemies in random empty cells and returns their handles. Enemies are not started
+    public int[] spawnEnemies(int count) {
+        synchronized (lock) {
+            int[] spawned = new int[count];
+            for (int i = 0; i < count; i++)
+                spawned[i] = spawnCharacter(CharacterStore.ENEMY);
+            return spawned;
+        }
+    }
+
+    //Creates the given number of friends in random empty cells and returns their handles. Friends are not started
+    public int[] spawnFriends(int count) {
+        synchronized (lock) {
+            int[] spawned = new int[count];
+            for (int i = 0; i < count; i++)
+                spawned[i] = spawnCharacter(CharacterStore.FRIEND);
+            return spawned;
+        }
+    }
+
+    //Creates one enemy in a random empty cell and returns its handle
+    public int spawnEnemy() {
+        synchronized (lock) {
+            return spawnCharacter(CharacterStore.ENEMY);
+        }
+    }
+
+    //Creates one friend in a random empty cell and returns its handle
+    public int spawnFriend() {
+        synchronized (lock) {
+            return spawnCharacter(CharacterStore.FRIEND);
+        }
+    }
+
+    //Creates the aircraft (Main player, there can only be one) and returns its handle. It is placed when it starts
+    public int spawnAircraft() {
+        synchronized (lock) {
+            int handle = characters.add(CharacterStore.AIRCRAFT, aircraftSize, characterColors[CharacterStore.AIRCRAFT]);
+            aircraft = CharacterStore.slotOf(handle);
+
+            //These inital coordinates avoid a bug
+            setPosition(aircraft, -100, -100);
+            return handle;
+        }
+    }
+
+    //Starts the character of the handle. AirCraft goes to its start position (Center of the world),
+    //enemies and friends start their Move and Shoot events
+    public void start(int handle) {
+        synchronized (lock) {
+            int slot = characters.slot(handle);
+            if (!checkExist(slot))
+                return;
+
+            if (characters.archetype(slot) == CharacterStore.AIRCRAFT)
+                setPosition(slot, startX, startY);
+            else
+                startBehaviours(slot);
+        }
+    }
+
+    //Creates an enemy or a friend in a random empty cell (Start position of the aircraft is never empty)
+    private int spawnCharacter(byte archetype) {
+        int handle = characters.add(archetype, characterSizes[archetype], characterColors[archetype]);
+        int slot = CharacterStore.slotOf(handle);
+
+        //Randomly selects one of the empty cells and assigns these empty coordinates
+        int cell = randomEmptyCell();
+        setPosition(slot, occupancy.cellX(cell), occupancy.cellY(cell));
+
+        if (archetype == CharacterStore.ENEMY)
+            livingEnemies++;
+        else
+            livingFriends++;
+        return handle;
+    }
+
+    //Selects a random empty cell for a new character and returns its index in the occupancy map
+    private int randomEmptyCell() {
+        int cell = occupancy.randomFreeCell(spawnGenerator);
+        if (cell == -1)
+            throw new IllegalStateException("There is no empty cell left for a new character");
+        return cell;
+    }
+
+    public void addListener(GameListener listener) {
+        listeners.add(listener);
+    }
+
+    //Selects where the Move and Shoot behaviours of the characters run. Null (Default) runs them in the tick.
+    //Has to be called before the characters are started
+    public void setBehaviourExecutor(BehaviourExecutor behaviours) {
+        this.behaviours = behaviours;
+    }
+
+    public BehaviourExecutor getBehaviourExecutor() {
+        return behaviours;
+    }
+
+    //Starts advancing the world in real time (One tick in every tickTime)
+    public void start() {
+        simulation = new SimulationThread();
+        simulation.start();
+    }
+
+    //Waits until the game is over (Simulation stops when the aircraft is deleted)
+    public void waitForEnd() throws InterruptedException {
+        if (simulation != null)
+            simulation.join();
+    }
+
+    //Advances the world in the calling thread as fast as possible until the game is over or maxTicks is reached.
+    //Returns the number of ticks simulated
+    public long runHeadless(long maxTicks) {
+        //Behaviours on the executor sleep in real time, so they can't follow the headless ticks
+        if (behaviours != null)
+            throw new IllegalStateException("Headless runs only work when the behaviours run in the tick");
+
+        long start = tickCount;
+        while (isRunning() && tickCount - start < maxTicks)
+            tick();
+        return tickCount - start;
+    }
+
+    //Checks if the game is still going
+    public boolean isRunning() {
+        return checkExist(aircraft);
+    }
+
+    //True if the character of the handle is not deleted
+    public boolean isAlive(int handle) {
+        synchronized (lock) {
+            return checkExist(characters.slot(handle));
+        }
+    }
+
+    public boolean isGameOver() {
+        return state.get() != RUNNING;
+    }
+
+    public boolean isWon() {
+        return state.get() == WON;
+    }
+
+    public int getState() {
+        return state.get();
+    }
+
+    public int getEnemyCount() {
+        return livingEnemies;
+    }
+
+    public int getFriendCount() {
+        return livingFriends;
+    }
+
+    //Number of the bullets in the world
+    public int getBulletCount() {
+        return bullets.size();
+    }
+
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    //Number of ticks between two steps of a bullet
+    public int getBulletMoveTicks() {
+        return bulletMoveTicks;
+    }
+
+    public int getBulletSize() {
+        return bulletSize;
+    }
+
+    //Advances the world in fixed time steps (tickTime). All the moves, shots and bullet steps happen in this thread
+    class SimulationThread extends Thread {
+        public void run() {
+            long tickNanos = (long) (tickTime * 1_000_000_000L);
+            long nextTick = System.nanoTime() + tickNanos;
+
+            //Works until player loses or wins the game
+            while (isRunning()) {
+                try {
+                    long remaining = nextTick - System.nanoTime();
+                    if (remaining > 0)
+                        Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+
+                    tick();
+                    nextTick += tickNanos;
+
+                    //If the simulation falls too far behind (ex: machine was suspended), skips the missed ticks
+                    if (System.nanoTime() - nextTick > tickNanos * 10)
+                        nextTick = System.nanoTime() + tickNanos;
+
+                } catch (InterruptedException e) {
+                    //throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    //Advances the game by one tick. Runs the timers of this tick, bullet steps first and then the characters
+    public void tick() {
+        synchronized (lock) {
+            long start = System.nanoTime();
+            GameMetrics.TickEvent event = metrics.beginTick();
+            tickCount++;
+
+            applyInput();
+            updateChunks();
+
+            int firedCount = timers.advance();
+
+            //Bullets are stepped before the characters shoot (New bullets have their first step in a later tick)
+            int stepping = 0;
+            for (int i = 0; i < firedCount; i++) {
+                int timer = timers.fired(i);
+                if (timers.kind(timer) == BULLET_TIMER && timers.isScheduled(timer)) {
+                    if (stepping == steppingBullets.length)
+                        steppingBullets = Arrays.copyOf(steppingBullets, stepping * 2);
+                    steppingBullets[stepping++] = timers.target(timer);
+                }
+            }
+
+            if (parallel != null && stepping >= parallelThreshold)
+                stepBulletsParallel(stepping);
+            else {
+                for (int i = 0; i < stepping; i++)
+                    stepBullet(steppingBullets[i]);
+            }
+
+            //Moves and shots. Timers of the characters deleted in this tick are already cancelled
+            for (int i = 0; i < firedCount; i++) {
+                int timer = timers.fired(i);
+                int kind = timers.kind(timer);
+                if (kind == BULLET_TIMER || !timers.isScheduled(timer))
+                    continue;
+
+                int slot = timers.target(timer);
+                if (!checkExist(slot))
+                    continue;
+
+                //Characters in the dormant chunks fall asleep instead of acting
+                if (chunks != null && !chunks.isActive(characters.positionX(slot), characters.positionY(slot))) {
+                    sleep(slot);
+                    continue;
+                }
+
+                //Moving checks the collisions of the character too
+                if (kind == MOVE_TIMER)
+                    moveOnce(slot);
+                else if (kind == SHOOT_TIMER)
+                    shootOnce(slot);
+            }
+
+            resolveOverlaps();
+            clearGarbage();
+            publishSnapshot();
+            metrics.endTick(event, start, tickCount, bullets.size());
+        }
+    }
+
+    //Moves the active chunks with the aircraft. Characters of the chunks that become active wake up
+    private void updateChunks() {
+        if (chunks == null || !checkExist(aircraft))
+            return;
+
+        int woken = chunks.setCenter(characters.positionX(aircraft), characters.positionY(aircraft), wokenChunks);
+        for (int i = 0; i < woken; i++) {
+            int slot = chunks.first(wokenChunks[i]);
+            while (slot != -1) {
+                int next = chunks.next(slot);
+                long slept = tickCount - chunks.getSleepTick(slot);
+                chunks.remove(slot);
+                wake(slot, slept);
+                slot = next;
+            }
+        }
+    }
+
+    //Stops the timers of the character and adds it to the sleeping characters of its chunk
+    private void sleep(int slot) {
+        stopTimers(slot);
+        chunks.sleep(slot, characters.positionX(slot), characters.positionY(slot), tickCount);
+    }
+
+    //Catches up the moves that the character missed while sleeping in one step and starts its timers again.
+    //Missed moves are a random walk (At most MAX_CATCH_UP_MOVES steps), missed shots are skipped
+    private void wake(int slot, long slept) {
+        int moves = (int) Math.min(MAX_CATCH_UP_MOVES, slept / characterMoveTicks);
+        int size = characters.size(slot);
+        int positionX = characters.positionX(slot);
+        int positionY = characters.positionY(slot);
+
+        for (int i = 0; i < moves; i++) {
+            int direction = moveGenerator.nextInt(4);
+            if (direction == 0 && positionY >= 10)
+                positionY -= 10;
+            else if (direction == 1 && positionX >= 10)
+                positionX -= 10;
+            else if (direction == 2 && positionY + 10 <= height - size)
+                positionY += 10;
+            else if (direction == 3 && positionX + 10 <= width - size)
+                positionX += 10;
+        }
+
+        if (moves > 0) {
+            setPosition(slot, positionX, positionY);
+            checkCharacterCollision(slot);
+        }
+        if (checkExist(slot)) {
+            //Overlaps that were dropped from the queue while it was sleeping
+            if (isOverlapping(slot))
+                separate(slot);
+            startBehaviours(slot);
+        }
+    }
+
+    //Starts taking the user input from a queue at the start of every tick and returns the queue that the view writes into
+    public InputQueue enableInput() {
+        synchronized (lock) {
+            if (input == null)
+                input = new InputQueue(256);
+            return input;
+        }
+    }
+
+    //Takes all the waiting input events. Shoots for every mouse press and moves the aircraft 10 pixel in the directions
+    //of the held (Or just pressed) keys. Caller holds the lock
+    private void applyInput() {
+        if (input == null)
+            return;
+
+        if (replay != null)
+            replay.feed(tickCount, input);
+
+        int count = input.available();
+        long index = input.first();
+        for (int i = 0; i < count; i++, index++) {
+            int bit = 1 << input.key(index);
+            int type = input.type(index);
+
+            if (recorder != null)
+                recordInput(type, input.key(index));
+
+            if (type == InputQueue.KEY_DOWN) {
+                heldKeys |= bit;
+                pressedKeys |= bit;
+            }
+            else if (type == InputQueue.KEY_UP)
+                heldKeys &= ~bit;
+            else if (type == InputQueue.SHOOT)
+                aircraftShoot();
+        }
+        if (count > 0)
+            lastInputTime = input.time(input.first());
+        input.release(count);
+
+        int keys = heldKeys | pressedKeys;
+        pressedKeys = 0;
+
+        int directionX = ((keys >> InputQueue.RIGHT) & 1) - ((keys >> InputQueue.LEFT) & 1);
+        int directionY = ((keys >> InputQueue.DOWN) & 1) - ((keys >> InputQueue.UP) & 1);
+        if (directionX != 0 || directionY != 0)
+            moveAircraft(directionX, directionY);
+    }
+
+    //Writes the input event of this tick into the recording. Recording stops if the file can not be written
+    private void recordInput(int type, int key) {
+        try {
+            recorder.record(tickCount, type, key);
+        } catch (IOException e) {
+            try {
+                recorder.close();
+            } catch (IOException ignored) {
+            }
+            recorder = null;
+        }
+    }
+
+    //Starts publishing a snapshot after every tick and returns the exchange that the painter reads them from
+    public RenderSnapshot.Exchange enableSnapshots() {
+        synchronized (lock) {
+            if (snapshots == null) {
+                snapshots = new RenderSnapshot.Exchange();
+                publishSnapshot();
+            }
+            return snapshots;
+        }
+    }
+
+    //Copies the positions and colors of the living bullets and characters in the viewport into the back snapshot
+    //and publishes it. Only the grid cells under the viewport are visited. Caller holds the lock
+    void publishSnapshot() {
+        if (snapshots == null)
+            return;
+
+        int left = getViewportX();
+        int top = getViewportY();
+        int right = left + viewportWidth - 1;
+        int bottom = top + viewportHeight - 1;
+
+        RenderSnapshot snapshot = snapshots.back();
+        snapshot.clear(tickCount, left, top);
+        snapshot.inputTime = lastInputTime;
+
+        //Bullets whose top left corner is up to bulletSize-1 pixels outside of the viewport are partly visible
+        for (int row = bulletGrid.row(top - bulletSize + 1); row <= bulletGrid.row(bottom); row++) {
+            for (int column = bulletGrid.column(left - bulletSize + 1); column <= bulletGrid.column(right); column++) {
+                for (int bullet = bulletGrid.first(column, row); bullet != -1; bullet = bulletGrid.next(bullet)) {
+                    int x = bullets.positionX[bullet];
+                    int y = bullets.positionY[bullet];
+                    if (x + bulletSize > left && x <= right && y + bulletSize > top && y <= bottom)
+                        snapshot.add(x, y, bulletSize, bulletColors[bullets.owner[bullet]].getRGB());
+                }
+            }
+        }
+
+        //Enemies and friends (AirCraft is added last, so it is painted on top)
+        int reach = Math.max(aircraftSize, Math.max(enemySize, friendSize)) - 1;
+        for (int row = grid.row(top - reach); row <= grid.row(bottom); row++) {
+            for (int column = grid.column(left - reach); column <= grid.column(right); column++) {
+                for (int id = grid.first(column, row); id != -1; id = grid.next(id)) {
+                    if (id == aircraft)
+                        continue;
+
+                    CharacterStore.Archetype columns = characters.columns(id);
+                    int index = characters.index(id);
+                    int x = columns.positionX[index];
+                    int y = columns.positionY[index];
+                    int size = columns.size[index];
+                    if (x + size > left && x <= right && y + size > top && y <= bottom)
+                        snapshot.add(x, y, size, columns.rgb[index]);
+                }
+            }
+        }
+
+        if (aircraft != -1)
+            snapshot.add(characters.positionX(aircraft), characters.positionY(aircraft), aircraftSize, characterColors[CharacterStore.AIRCRAFT]);
+
+        snapshots.publish();
+    }
+
+    //Collects the ids of the living characters whose area contains the given point into the query buffer.
+    //Only the cell of the point and its upper and left neighbours (Up to the biggest character size) are checked.
+    //Returns the start index of the result, the result ends at queryTop. Caller resets queryTop to the start index
+    private int queryCharactersAt(int x, int y) {
+        int start = queryTop;
+        int reach = Math.max(aircraftSize, Math.max(enemySize, friendSize)) - 1;
+
+        for (int row = grid.row(y - reach); row <= grid.row(y); row++) {
+            for (int column = grid.column(x - reach); column <= grid.column(x); column++) {
+                for (int id = grid.first(column, row); id != -1; id = grid.next(id)) {
+                    CharacterStore.Archetype columns = characters.columns(id);
+                    int index = characters.index(id);
+                    int positionX = columns.positionX[index];
+                    int positionY = columns.positionY[index];
+                    int size = columns.size[index];
+
+                    //Checks if the point is in the character
+                    if (positionX <= x && positionX + size > x) {
+                        if (positionY <= y && positionY + size > y) {
+                            if (queryTop == queryBuffer.length)
+                                queryBuffer = Arrays.copyOf(queryBuffer, queryBuffer.length * 2);
+                            queryBuffer[queryTop++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return start;
+    }
+
+    //Writes the ids of the living characters whose area contains the given point into out (From offset, at most max ids).
+    //Returns the number of ids (-1 if there are more than max). Does not change anything, so it can run on any thread
+    //while the world is not changed
+    int collectCharactersAt(int x, int y, int[] out, int offset, int max) {
+        int count = 0;
+        int reach = Math.max(aircraftSize, Math.max(enemySize, friendSize)) - 1;
+
+        for (int row = grid.row(y - reach); row <= grid.row(y); row++) {
+            for (int column = grid.column(x - reach); column <= grid.column(x); column++) {
+                for (int id = grid.first(column, row); id != -1; id = grid.next(id)) {
+                    CharacterStore.Archetype columns = characters.columns(id);
+                    int index = characters.index(id);
+                    int positionX = columns.positionX[index];
+                    int positionY = columns.positionY[index];
+                    int size = columns.size[index];
+
+                    //Checks if the point is in the character
+                    if (positionX <= x && positionX + size > x) {
+                        if (positionY <= y && positionY + size > y) {
+                            if (count == max)
+                                return -1;
+                            out[offset + count++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    //Removes the characters deleted in this tick from the store (Constant time for each one). Caller holds the lock
+    int clearGarbage() {
+        return characters.flush();
+    }
+
+    //Changes the position of the character in the slot and moves it to its new cell in the grid and the occupancy map
+    void setPosition(int slot, int positionX, int positionY) {
+        CharacterStore.Archetype columns = characters.columns(slot);
+        int index = characters.index(slot);
+        if (columns.alive[index]) {
+            boolean placed = columns.placed[index];
+            if (placed)
+                occupancy.move(columns.positionX[index], columns.positionY[index], positionX, positionY);
+            else
+                occupancy.add(positionX, positionY);
+            columns.placed[index] = true;
+            grid.update(slot, positionX, positionY);
+
+            //Friend field only changes when the cell of the enemy changes (Cells of the field are 10px)
+            if (friendField != null && characters.archetype(slot) == CharacterStore.ENEMY && (!placed
+                    || columns.positionX[index] / 10 != positionX / 10 || columns.positionY[index] / 10 != positionY / 10))
+                friendTargetsChanged = true;
+        }
+        columns.positionX[index] = positionX;
+        columns.positionY[index] = positionY;
+    }
+
+    //Removes the character from the grid and the occupancy map. Called when the character is deleted
+    private void removeFromGrid(int slot) {
+        CharacterStore.Archetype columns = characters.columns(slot);
+        int index = characters.index(slot);
+        grid.remove(slot);
+        if (columns.placed[index])
+            occupancy.remove(columns.positionX[index], columns.positionY[index]);
+        columns.placed[index] = false;
+    }
+
+    //Starts the Move and Shoot events of the character. They run on the behaviour executor if the world has one
+    //(If the executor is full they stay in the tick), otherwise they are timers of the timing wheel.
+    //First move and shot happen after a random part of their period, so the characters don't act together
+    private void startBehaviours(int slot) {
+        CharacterStore.Archetype columns = characters.columns(slot);
+        int index = characters.index(slot);
+        int handle = characters.handle(slot);
+
+        if (behaviours == null || !behaviours.submit(new Move(handle)))
+            columns.moveTimer[index] = timers.schedule(MOVE_TIMER, slot, 1 + cadenceGenerator.nextInt(characterMoveTicks), characterMoveTicks, cadenceJitter);
+        if (behaviours == null || !behaviours.submit(new Shoot(handle)))
+            columns.shootTimer[index] = timers.schedule(SHOOT_TIMER, slot, 1 + cadenceGenerator.nextInt(characterShootTicks), characterShootTicks, cadenceJitter);
+    }
+
+    //Cancels the move and shoot timers. Called when the character is deleted
+    private void stopTimers(int slot) {
+        CharacterStore.Archetype columns = characters.columns(slot);
+        int index = characters.index(slot);
+        timers.cancel(columns.moveTimer[index]);
+        timers.cancel(columns.shootTimer[index]);
+        columns.moveTimer[index] = -1;
+        columns.shootTimer[index] = -1;
+    }
+
+    //Ends the game. AirCraft is deleted but stays in the store (Its last position is still shown)
+    public void deleteAirCraft(boolean win) {
+        //Only the first result counts (ex: last enemy and the aircraft are deleted in the same collision)
+        if (!state.compareAndSet(RUNNING, win ? WON : LOST))
+            return;
+
+        characters.markDead(aircraft);
+        removeFromGrid(aircraft);
+        if (events != null)
+            events.record(tickCount, win ? EventRecorder.GAME_WON : EventRecorder.GAME_LOST, 0, characters.positionX(aircraft), characters.positionY(aircraft));
+
+        for (GameListener listener : listeners)
+            listener.gameOver(win);
+
+        //Stops the behaviour threads (They are sleeping or waiting for the lock)
+        if (behaviours != null)
+            behaviours.shutdown();
+    }
+
+    //Removes the enemy in the slot from the world (Store removes it at the end of the tick)
+    public void deleteEnemy(int slot) {
+        if (!checkExist(slot))
+            return;
+
+        removeFromGrid(slot);
+        stopTimers(slot);
+        characters.remove(slot);
+
+        if (chunks != null)
+            chunks.remove(slot);
+
+        livingEnemies--;
+        metrics.enemyKilled();
+        if (events != null)
+            events.record(tickCount, EventRecorder.ENEMY_KILLED, 0, characters.positionX(slot), characters.positionY(slot));
+        friendTargetsChanged = true;
+        for (GameListener listener : listeners)
+            listener.enemyKilled(livingEnemies);
+
+        //Checks if all the enemies removed
+        checkWin();
+    }
+
+    //Removes the friend in the slot from the world (Store removes it at the end of the tick)
+    public void deleteFriend(int slot) {
+        if (!checkExist(slot))
+            return;
+
+        removeFromGrid(slot);
+        stopTimers(slot);
+        characters.remove(slot);
+
+        if (chunks != null)
+            chunks.remove(slot);
+
+        livingFriends--;
+        metrics.friendKilled();
+        if (events != null)
+            events.record(tickCount, EventRecorder.FRIEND_KILLED, 0, characters.positionX(slot), characters.positionY(slot));
+        for (GameListener listener : listeners)
+            listener.friendKilled(livingFriends);
+    }
+
+    //Moves the aircraft 10 pixel in the given direction (If it stays in the frame). Caller holds the lock
+    public void moveAircraft(int directionX, int directionY) {
+        if (!checkExist(aircraft))
+            return;
+
+        int positionX = characters.positionX(aircraft);
+        int positionY = characters.positionY(aircraft);
+        int newX = positionX;
+        int newY = positionY;
+
+        //Moves the aircraft 10 pixel up or down
+        if ((directionY < 0 && positionY >= 10) || (directionY > 0 && positionY + 10 <= height - aircraftSize))
+            newY += 10 * directionY;
+
+        //Moves the aircraft 10 pixel left or right
+        if ((directionX < 0 && positionX >= 10) || (directionX > 0 && positionX + 10 <= width - aircraftSize))
+            newX += 10 * directionX;
+
+        setPosition(aircraft, newX, newY);
+        checkCharacterCollision(aircraft);
+    }
+
+    //Creates two bullets of the aircraft. One goes left and other one goes right. Caller holds the lock
+    public void aircraftShoot() {
+        if (!checkExist(aircraft))
+            return;
+
+        int positionX = characters.positionX(aircraft);
+        int positionY = characters.positionY(aircraft);
+        if (events != null)
+            events.record(tickCount, EventRecorder.SHOT, CharacterStore.AIRCRAFT, positionX, positionY);
+        spawnBullet(positionX - bulletSize, positionY, -1, BulletStore.AIRCRAFT);
+        spawnBullet(positionX + aircraftSize, positionY, 1, BulletStore.AIRCRAFT);
+    }
+
+    //Moves the character in the slot 10 pixel once. Pursuing characters follow their flow field, others (And the
+    //pursuing ones that have no direction, ex: friends when there is no enemy) move in a random direction
+    void moveOnce(int slot) {
+        int direction = pursuitDirection(slot);
+        if (direction == FlowField.NONE)
+            direction = moveGenerator.nextInt(4);
+        moveInDirection(slot, direction);
+    }
+
+    //Moves the character in the slot 10 pixel in a random direction once (ex: to separate two characters)
+    void moveRandomly(int slot) {
+        moveInDirection(slot, moveGenerator.nextInt(4));
+    }
+
+    //Moves the waiting overlapping characters away (Randomly) in the order they are found (Sleeping ones are dropped from
+    //the queue, wake() adds them again if they still overlap). Every
+    //character costs one from the budget. A moved character may land on another one, then that one is added to the end of the queue
+    //(Not moved recursively). Characters that are not reached stay in the queue for the next tick. Caller holds the lock
+    void resolveOverlaps() {
+        for (int budget = overlapBudget; budget > 0 && overlaps.size() > 0; budget--) {
+            int slot = characters.slot(overlaps.poll());
+            if (checkExist(slot) && (chunks == null || !chunks.isSleeping(slot)) && isOverlapping(slot)) {
+                moveRandomly(slot);
+                metrics.overlapMoved();
+            }
+        }
+    }
+
+    //True if another living character is in the same place as the character in the slot
+    private boolean isOverlapping(int slot) {
+        int start = queryCharactersAt(characters.positionX(slot), characters.positionY(slot));
+        try {
+            for (int i = start; i < queryTop; i++)
+                if (queryBuffer[i] != slot && checkExist(queryBuffer[i]))
+                    return true;
+            return false;
+        } finally {
+            queryTop = start;
+        }
+    }
+
+    //Adds the character in the slot to the characters that have to move away
+    private void separate(int slot) {
+        overlaps.add(slot, characters.handle(slot));
+    }
+
+    //Direction of the character's flow field at its position (FlowField.NONE if it does not pursue)
+    private int pursuitDirection(int slot) {
+        byte archetype = characters.archetype(slot);
+        if (archetype == CharacterStore.ENEMY && enemyField != null && checkExist(aircraft)) {
+            //Only target is the aircraft, so directions come from its cell without a search (See FlowField)
+            enemyField.setTarget(characters.positionX(aircraft), characters.positionY(aircraft));
+            return enemyField.direction(characters.positionX(slot), characters.positionY(slot));
+        }
+
+        if (archetype == CharacterStore.FRIEND && friendField != null) {
+            //Field is searched only if the set of the enemy cells is not the same as in the last search
+            if (friendTargetsChanged && friendTargetsTick != tickCount) {
+                friendTargetsChanged = false;
+                friendTargetsTick = tickCount;
+                friendField.clearTargets();
+
+                CharacterStore.Archetype enemies = characters.archetypes[CharacterStore.ENEMY];
+                for (int i = 0; i < enemies.count; i++)
+                    if (enemies.alive[i])
+                        friendField.addTarget(enemies.positionX[i], enemies.positionY[i]);
+            }
+            return friendField.direction(characters.positionX(slot), characters.positionY(slot));
+        }
+        return FlowField.NONE;
+    }
+
+    //Moves the character in the slot 10 pixel in the given direction (If it stays in the frame)
+    //0->North   1->West   2->South   3->East
+    private void moveInDirection(int slot, int direction) {
+        CharacterStore.Archetype columns = characters.columns(slot);
+        int index = characters.index(slot);
+        int positionX = columns.positionX[index];
+        int positionY = columns.positionY[index];
+        int size = columns.size[index];
+
+        int newX = positionX;
+        int newY = positionY;
+
+        //Moves the character 10 pixel up (If it is in the frame)
+        if (direction == 0)
+            if (positionY >= 10)
+                newY -= 10;
+
+        //Moves the character 10 pixel left (If it is in the frame)
+        if (direction == 1)
+            if (positionX >= 10)
+                newX -= 10;
+
+        //Moves the character 10 pixel down (If it is in the frame)
+        if (direction == 2)
+            if (positionY + 10 <= height - size)
+                newY += 10;
+
+        //Moves the character 10 pixel right (If it is in the frame)
+        if (direction == 3)
+            if (positionX + 10 <= width - size)
+                newX += 10;
+
+        setPosition(slot, newX, newY);
+        checkCharacterCollision(slot);
+    }
+
+    //Creates two bullets of the enemy or friend in the slot. One goes left and other one goes right
+    void shootOnce(int slot) {
+        int positionX = characters.positionX(slot);
+        int positionY = characters.positionY(slot);
+        byte archetype = characters.archetype(slot);
+        if (events != null)
+            events.record(tickCount, EventRecorder.SHOT, archetype, positionX, positionY);
+
+        //Shooting the enemy's bullets
+        if (archetype == CharacterStore.ENEMY) {
+            spawnBullet(positionX - bulletSize, positionY, -1, BulletStore.ENEMY);
+            spawnBullet(positionX + 10, positionY, 1, BulletStore.ENEMY);
+        }
+        //Shooting the friend's bullets
+        else if (archetype == CharacterStore.FRIEND) {
+            spawnBullet(positionX - bulletSize, positionY, -1, BulletStore.FRIEND);
+            spawnBullet(positionX + characters.size(slot), positionY, 1, BulletStore.FRIEND);
+        }
+    }
+
+    //Moves the character of the handle in every period on the behaviour executor
+    class Move implements Runnable {
+
+        //Handle of the character (Slot may be reused by another character after this one is deleted)
+        int handle;
+
+        public Move(int handle) {
+            this.handle = handle;
+        }
+
+        //Move loop. Works until the character or the aircraft is deleted
+        public void run() {
+            try {
+                while (isRunning() && isAlive(handle)) {
+                    Thread.sleep((long) (characterMoveTicks * tickTime * 1000));
+
+                    synchronized (lock) {
+                        int slot = characters.slot(handle);
+                        if (checkExist(slot)) {
+                            moveOnce(slot);
+                            checkCharacterCollision(slot);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                //Executor is shut down (Game is over)
+            }
+        }
+    }
+
+    //Shoots the bullets of the character of the handle in every period on the behaviour executor
+    class Shoot implements Runnable {
+
+        int handle;
+
+        public Shoot(int handle) {
+            this.handle = handle;
+        }
+
+        //Shoot loop. Works until the character is deleted
+        public void run() {
+            try {
+                while (isAlive(handle)) {
+                    Thread.sleep((long) (characterShootTicks * tickTime * 1000));
+
+                    synchronized (lock) {
+                        int slot = characters.slot(handle);
+                        if (checkExist(slot))
+                            shootOnce(slot);
+                    }
+                }
+            } catch (InterruptedException e) {
+                //Executor is shut down (Game is over)
+            }
+        }
+    }
+
+    //Creates a bullet and starts its step timer. Returns the slot of the bullet (-1 if it is already out of the frame)
+    int spawnBullet(int positionX, int positionY, int direction, byte owner) {
+        int bullet = bullets.spawn(positionX, positionY, direction, owner);
+
+        //Bullet is created out of the frame
+        if (!isValidBullet(bullet)) {
+            bullets.kill(bullet);
+            return -1;
+        }
+
+        bullets.timer[bullet] = timers.schedule(BULLET_TIMER, bullet, bulletMoveTicks, bulletMoveTicks, 0);
+        bulletGrid.insert(bullet, positionX, positionY);
+        return bullet;
+    }
+
+    //Deletes the bullet and cancels its step timer
+    void killBullet(int bullet) {
+        timers.cancel(bullets.timer[bullet]);
+        bullets.timer[bullet] = -1;
+        bulletGrid.remove(bullet);
+        bullets.kill(bullet);
+    }
+
+    //Called by the step timer of the bullet in the given slot. Checks collision and moves the bullet(10 px)
+    private void stepBullet(int bullet) {
+        checkBulletCollision(bullet);
+        moveBullet(bullet);
+    }
+
+    //Steps the given number of bullets of steppingBullets. Collision queries run in parallel (They only read the world),
+    //then the results are applied serially in the same order as stepBullet. Characters only get deleted while the bullets
+    //step (Nobody moves), so skipping the deleted characters of a query gives the same result as querying again
+    private void stepBulletsParallel(int stepping) {
+        parallel.clear();
+        for (int i = 0; i < stepping; i++)
+            parallel.add(steppingBullets[i]);
+        parallel.run();
+        metrics.collisionChecked(stepping);
+
+        int[] hits = parallel.hits();
+        for (int i = 0; i < stepping; i++) {
+            int bullet = parallel.bullet(i);
+            int hitCount = parallel.hitCount(i);
+
+            //Too many characters under the bullet for the buffer
+            if (hitCount < 0)
+                checkBulletCollision(bullet);
+            else {
+                int start = i * ParallelBulletQuery.MAX_HITS;
+                applyBulletCollision(bullet, hits, start, start + hitCount);
+            }
+            moveBullet(bullet);
+        }
+    }
+
+    //Moves the bullet(10 px) if it is still alive
+    private void moveBullet(int bullet) {
+        if (!bullets.alive[bullet])
+            return;
+
+        bullets.positionX[bullet] += 10 * bullets.direction[bullet];
+
+        //Bullet left the world
+        if (!isValidBullet(bullet))
+            killBullet(bullet);
+        else
+            bulletGrid.update(bullet, bullets.positionX[bullet], bullets.positionY[bullet]);
+    }
+
+    //Checks if the bullet is in the world.
+    public boolean isValidBullet(int bullet) {
+        int positionX = bullets.positionX[bullet];
+        int positionY = bullets.positionY[bullet];
+        if (positionX <= width - bulletSize && positionX >= 0) {
+            if (positionY <= height - bulletSize && positionY >= 0) {
+                if (bullets.alive[bullet])
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    //Checks the characters at the bullet's position. If it has collision with bullet then makes corresponded process
+    public void checkBulletCollision(int bullet) {
+        //Only the characters around the bullet are checked (Collision is already tested by the query)
+        int start = queryCharactersAt(bullets.positionX[bullet], bullets.positionY[bullet]);
+        metrics.collisionChecked(1);
+        try {
+            applyBulletCollision(bullet, queryBuffer, start, queryTop);
+        } finally {
+            queryTop = start;
+        }
+    }
+
+    //Applies the collision rules of the bullet to the characters with the slots from ids[start] to ids[end-1]
+    //(Characters at the bullet's position, in the order of the query)
+    private void applyBulletCollision(int bullet, int[] ids, int start, int end) {
+        byte owner = bullets.owner[bullet];
+        try {
+            for (int i = start; i < end; i++) {
+                int curr = ids[i];
+
+                //Checks if they exits
+                if (checkExist(curr) && bullets.alive[bullet]) {
+                    byte archetype = characters.archetype(curr);
+
+                    //AirCraft's or Friend's bullet
+                    if (owner == BulletStore.AIRCRAFT || owner == BulletStore.FRIEND) {
+
+                        //If the character is Enemy. Then deletes the enemy and the bullet
+                        if (archetype == CharacterStore.ENEMY) {
+                            hitBullet(bullet, archetype);
+                            deleteEnemy(curr);
+
+                        }//If the character is Friend or AirCraft. Then deletes the bullet
+                        else if (archetype == CharacterStore.FRIEND || archetype == CharacterStore.AIRCRAFT) {
+                            hitBullet(bullet, archetype);
+                        }
+                    }
+
+                    //Enemy's bullet
+                    else if (owner == BulletStore.ENEMY) {
+
+                        //If the character is Friend. Then deletes the Friend and the bullet
+                        if (archetype == CharacterStore.FRIEND) {
+                            hitBullet(bullet, archetype);
+                            deleteFriend(curr);
+
+                        }//If the character is AirCraft. Then deletes the AirCraft and the bullet
+                        else if (archetype == CharacterStore.AIRCRAFT) {
+                            hitBullet(bullet, archetype);
+                            deleteAirCraft(false);
+
+                        }//If the character is Enemy. Then deletes the bullet
+                        else if (archetype == CharacterStore.ENEMY) {
+                            hitBullet(bullet, archetype);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            //Rest of the characters are not hit by this bullet, but the exception is counted (See GameMetrics)
+            metrics.exceptionSwallowed(e, "bullet collision");
+            if (events != null)
+                events.record(tickCount, EventRecorder.EXCEPTION, 0, e.getClass().getName().hashCode(), 0);
+        }
+    }
+
+    //Deletes the bullet that hit a character of the given archetype (Hit is recorded)
+    private void hitBullet(int bullet, byte archetype) {
+        if (events != null)
+            events.record(tickCount, EventRecorder.BULLET_HIT, bullets.owner[bullet] << 8 | archetype, bullets.positionX[bullet], bullets.positionY[bullet]);
+        killBullet(bullet);
+    }
+
+    //Checks if the character in the given slot exists
+    public boolean checkExist(int slot) {
+        return characters.isAlive(slot);
+    }
+
+    //Checks if there is any enemy left. If yes then returns false. Caller holds the lock
+    public boolean checkWin() {
+
+        //Checks if game is still going and there is no enemy left
+        if (checkExist(aircraft) && livingEnemies == 0) {
+
+            //Ends the game with win (deletes aircraft)
+            deleteAirCraft(true);
+            return true;
+        }
+        return false;
+    }
+
+    //Checks the collisions of the character in the given slot
+    public void checkCharacterCollision(int character) {
+        synchronized (lock) {
+            byte archetype = characters.archetype(character);
+
+            //Checks the characters around the given character (Only the ones that have collision are found)
+            int start = queryCharactersAt(characters.positionX(character), characters.positionY(character));
+            metrics.collisionChecked(1);
+            try {
+                for (int i = start; i < queryTop; i++) {
+                    int curr = queryBuffer[i];
+
+                    //Skips itself
+                    if (curr != character) {
+
+                        //If they exits
+                        if (checkExist(curr) && checkExist(character)) {
+                            byte currArchetype = characters.archetype(curr);
+
+                            //If Enemy and Friend has collision. Then deletes them both
+                            if (currArchetype == CharacterStore.FRIEND && archetype == CharacterStore.ENEMY) {
+                                deleteFriend(curr);
+                                deleteEnemy(character);
+                            }
+                            //If Enemy and AirCraft has collision. Then ends the game with lose (deletes aircraft)
+                            else if (currArchetype == CharacterStore.ENEMY && archetype == CharacterStore.AIRCRAFT) {
+                                deleteAirCraft(false);
+                            }
+                            else if (currArchetype == CharacterStore.AIRCRAFT && archetype == CharacterStore.ENEMY) {
+                                deleteAirCraft(false);
+                            }
+
+                            //If Enemy and Enemy has collision. Then one of them moves in random direction (At the end of the tick)
+                            else if (currArchetype == CharacterStore.ENEMY && archetype == CharacterStore.ENEMY) {
+                                separate(curr);
+                            }
+                            //If Friend and Friend has collision. Then one of them moves in random direction (At the end of the tick)
+                            else if (currArchetype == CharacterStore.FRIEND && archetype == CharacterStore.FRIEND) {
+                                separate(curr);
+                            }
+                            //If Friend and AirCraft has collision. Then Friend moves in random direction (At the end of the tick)
+                            else if (currArchetype == CharacterStore.FRIEND && archetype == CharacterStore.AIRCRAFT) {
+                                separate(curr);
+                            }
+                            else if (currArchetype == CharacterStore.AIRCRAFT && archetype == CharacterStore.FRIEND) {
+                                separate(character);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                queryTop = start;
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+//************************************************************************************
+// InputQueue.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Bounded lock-free queue of the user input. One producer (Swing event thread) adds the key and mouse events,
+// one consumer (Simulation) takes all of them at the start of every tick. Neither of them waits for the other.
+// If the queue is full the new event is dropped (And counted).
+// Also keeps the input to frame latency (From the input event to the first shown frame that contains its result).
+//************************************************************************************
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class InputQueue {
+
+    //Types of the events
+    public static final int KEY_DOWN = 0;
+    public static final int KEY_UP = 1;
+    public static final int SHOOT = 2;
+
+    //Keys of the KEY_DOWN and KEY_UP events (Movement directions of the aircraft)
+    public static final int UP = 0;
+    public static final int LEFT = 1;
+    public static final int DOWN = 2;
+    public static final int RIGHT = 3;
+
+    private final int mask;
+
+    //Ring of the events. Event i is in the index i & mask
+    private final int[] type;
+    private final int[] key;
+    private final long[] time;
+
+    //Index of the next event that is written (Only changed by the producer) and read (Only changed by the consumer).
+    //They are published with lazySet, the other side reads them with get
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    //Used only by the producer. Last head it has read (Avoids reading head for every event)
+    private long cachedHead = 0;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    //Latency statistics (Only used by the render thread)
+    private long latencyCount = 0;
+    private long latencyTotal = 0;
+    private long latencyWorst = 0;
+    private long latencyLast = 0;
+
+    //capacity is rounded up to a power of two (At most 2^30)
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, Math.min(capacity, 1 << 30) - 1)) << 1;
+        mask = size - 1;
+        type = new int[size];
+        key = new int[size];
+        time = new long[size];
+    }
+
+    //Adds an event (Called by the producer). Returns false if the queue is full and the event is dropped
+    public boolean offer(int type, int key) {
+        long index = tail.get();
+        if (index - cachedHead > mask) {
+            cachedHead = head.get();
+            if (index - cachedHead > mask) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        }
+
+        int slot = (int) (index & mask);
+        this.type[slot] = type;
+        this.key[slot] = key;
+        time[slot] = System.nanoTime();
+        tail.lazySet(index + 1);
+        return true;
+    }
+
+    //Number of events waiting (Called by the consumer). Events from first() to first()+available()-1 can be read
+    public int available() {
+        return (int) (tail.get() - head.get());
+    }
+
+    //Index of the oldest waiting event
+    public long first() {
+        return head.get();
+    }
+
+    public int type(long index) {
+        return type[(int) (index & mask)];
+    }
+
+    public int key(long index) {
+        return key[(int) (index & mask)];
+    }
+
+    //Time (System.nanoTime) when the event was added
+    public long time(long index) {
+        return time[(int) (index & mask)];
+    }
+
+    //Removes the given number of events after they are read (Called by the consumer)
+    public void release(int count) {
+        head.lazySet(head.get() + count);
+    }
+
+    //Number of events that are dropped because the queue was full
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    //Called by the render thread when a frame that contains the result of an input (Added at inputTime) is shown
+    public void recordLatency(long inputTime) {
+        long latency = System.nanoTime() - inputTime;
+        latencyLast = latency;
+        latencyTotal += latency;
+        latencyWorst = Math.max(latencyWorst, latency);
+        latencyCount++;
+    }
+
+    //Last input to frame latency in the type of millisecond
+    public double getLastLatency() {
+        return latencyLast / 1e6;
+    }
+
+    //Average input to frame latency in the type of millisecond
+    public double getAverageLatency() {
+        return latencyCount == 0 ? 0 : latencyTotal / 1e6 / latencyCount;
+    }
+
+    //Worst input to frame latency in the type of millisecond
+    public double getWorstLatency() {
+        return latencyWorst / 1e6;
+    }
+
+    public long getLatencyCount() {
+        return latencyCount;
+    }
+}
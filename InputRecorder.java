@@ -0,0 +1,84 @@
+//************************************************************************************
+// InputRecorder.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Records a game into a compact binary file. Only the parameters of the world (Seed, size, number of enemies
+// and friends, pursuit modes, dormancy) and the input events of every tick are written, the rest of the game is calculated again
+// from them while replaying (See ReplayPlayer).
+//
+// File format (Big endian):
+//     int magic ("ASGR"), short version, long seed, int width, int height, int enemies, int friends, int pursuit,
+//     int dormancy
+//     events: varint (Ticks since the previous event), byte (type << 4 | key)
+//     end:    varint (Ticks since the previous event), byte 0xFF, long last tick, long checksum of the world
+//************************************************************************************
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+public class InputRecorder implements Closeable {
+
+    static final int MAGIC = 0x41534752;
+    static final int VERSION = 5;
+    static final int END = 0xFF;
+
+    private final DataOutputStream output;
+
+    //Tick of the last written event
+    private long lastTick = 0;
+
+    private boolean closed = false;
+
+    public InputRecorder(String path, long seed, int width, int height, int enemies, int friends, int pursuit, int dormancy) throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeLong(seed);
+        output.writeInt(width);
+        output.writeInt(height);
+        output.writeInt(enemies);
+        output.writeInt(friends);
+        output.writeInt(pursuit);
+        output.writeInt(dormancy);
+    }
+
+    //Writes an input event of the given tick (Called by the simulation while it applies the event)
+    public void record(long tick, int type, int key) throws IOException {
+        writeDelta(tick);
+        output.writeByte(type << 4 | key);
+    }
+
+    //Writes the end of the game with the checksum of the world and closes the file
+    public void finish(long tick, long checksum) throws IOException {
+        if (closed)
+            return;
+
+        writeDelta(tick);
+        output.writeByte(END);
+        output.writeLong(tick);
+        output.writeLong(checksum);
+        close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+
+        closed = true;
+        output.close();
+    }
+
+    //Writes the number of ticks since the last event (7 bits in every byte, high bit shows that more bytes follow)
+    private void writeDelta(long tick) throws IOException {
+        long delta = tick - lastTick;
+        lastTick = tick;
+        while ((delta & ~0x7FL) != 0) {
+            output.writeByte((int) (delta & 0x7F) | 0x80);
+            delta >>>= 7;
+        }
+        output.writeByte((int) delta);
+    }
+}
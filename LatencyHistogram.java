@@ -0,0 +1,95 @@
+//************************************************************************************
+// LatencyHistogram.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Histogram of durations in nanoseconds (Like the HdrHistogram library, but much smaller).
+// Every power of two is divided into 16 equal buckets, so a recorded value is kept with about 6% precision
+// from 1 ns to the biggest long, and the histogram has a fixed size (No allocation while recording).
+// One thread records the values (ex: simulation thread for the ticks), any thread can read the percentiles.
+//************************************************************************************
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    //Values below 2^SUB_BITS have their own buckets, after that every power of two has 2^(SUB_BITS-1) buckets
+    private static final int SUB_BITS = 5;
+    private static final int HALF = 1 << (SUB_BITS - 1);
+    private static final int BUCKETS = (63 - SUB_BITS + 2) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private volatile long count = 0;
+    private volatile long total = 0;
+    private volatile long max = 0;
+
+    //Adds a duration (Negative durations are recorded as 0)
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        counts.incrementAndGet(bucketOf(nanos));
+        total += nanos;
+        if (nanos > max)
+            max = nanos;
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        long count = this.count;
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    //Smallest value that is bigger than or equal to the given part (0-100) of the recorded values
+    //(Highest value of its bucket, at most the max)
+    public long getPercentile(double percentile) {
+        long count = this.count;
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank)
+                return Math.min(highestValue(bucket), max);
+        }
+        return max;
+    }
+
+    //Removes all the recorded values (Should be called by the recording thread)
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+            counts.set(bucket, 0);
+        count = 0;
+        total = 0;
+        max = 0;
+    }
+
+    //Bucket of the value. Values from 2^k to 2^(k+1)-1 (k >= SUB_BITS) are divided into HALF buckets
+    static int bucketOf(long value) {
+        if (value < (1 << SUB_BITS))
+            return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    //Highest value that is counted in the bucket
+    static long highestValue(int bucket) {
+        if (bucket < (1 << SUB_BITS))
+            return bucket;
+
+        int shift = bucket / HALF - 1;
+        long sub = bucket % HALF + HALF;
+        long next = (sub + 1) << shift;
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+}
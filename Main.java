@@ -1,38 +1,210 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Main{
 
-	public static void main(String[] args) {
+	public static void main(String[] args) throws IOException {
 
 		int num_enemies = 10;
 		int num_friends = 10;
 
-		Game g = new Game();
-		Game.Enemy[] enemies = new Game.Enemy[num_enemies];
-		Game.Friend[] friends = new Game.Friend[num_friends];
+		//"--headless" runs the game without a window as fast as possible (Aircraft stays in its start position)
+		boolean headless = false;
+		long maxTicks = 100000;
+		int fps = 60;
+		//"--behaviours platform|virtual" runs Move and Shoot of every character on its own thread instead of the tick
+		String behaviours = "tick";
+		int maxBehaviours = 10000;
+		//"--width N" and "--height N" change the size of the world (Window shows 500x500 pixels of it around the aircraft)
+		int width = 500;
+		int height = 500;
+		//"--renderer raster" paints the frames by writing the pixels directly instead of Graphics calls
+		boolean raster = false;
+		//"--seed N" plays the game with the given seed (Same seed and same input play the same game)
+		long seed = System.nanoTime();
+		//"--record file" writes the input of the game into the file, "--replay file" plays a recorded game again
+		String record = null;
+		String replay = null;
+		//"--threads N" runs the collision queries of the bullets on N threads when there are many of them
+		int threads = 1;
+		//"--metrics" prints the tick times and the counters of the world at the end (They are always shown with JMX)
+		boolean metrics = false;
+		//"--pursuit enemies|friends|all" makes the enemies chase the aircraft and/or the friends chase the nearest enemy
+		int pursuit = 0;
+		//"--dormancy N" puts the characters more than N chunks (160 pixels) away from the aircraft to sleep (Large worlds)
+		int dormancy = 0;
+		//"--save file" writes the whole world into the file at the end, "--load file" continues a saved world instead of
+		//spawning a new one (Not together with --record or --replay)
+		String save = null;
+		String load = null;
+		//"--events file" records the kills, shots, bullet hits and the end of the game into a ring file (Last
+		//"--events-capacity N" events are kept, read them with EventDecoder)
+		String events = null;
+		int eventCapacity = 1 << 20;
+		for(int i=0;i<args.length;i++) {
+			if(args[i].equals("--headless"))
+				headless = true;
+			else if(args[i].equals("--ticks") && i+1<args.length)
+				maxTicks = Long.parseLong(args[++i]);
+			else if(args[i].equals("--fps") && i+1<args.length)
+				fps = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--behaviours") && i+1<args.length)
+				behaviours = args[++i];
+			else if(args[i].equals("--max-behaviours") && i+1<args.length)
+				maxBehaviours = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--width") && i+1<args.length)
+				width = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--height") && i+1<args.length)
+				height = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--renderer") && i+1<args.length)
+				raster = args[++i].equals("raster");
+			else if(args[i].equals("--seed") && i+1<args.length)
+				seed = Long.parseLong(args[++i]);
+			else if(args[i].equals("--record") && i+1<args.length)
+				record = args[++i];
+			else if(args[i].equals("--replay") && i+1<args.length)
+				replay = args[++i];
+			else if(args[i].equals("--threads") && i+1<args.length)
+				threads = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--metrics"))
+				metrics = true;
+			else if(args[i].equals("--pursuit") && i+1<args.length)
+				pursuit = parsePursuit(args[++i]);
+			else if(args[i].equals("--dormancy") && i+1<args.length)
+				dormancy = Integer.parseInt(args[++i]);
+			else if(args[i].equals("--save") && i+1<args.length)
+				save = args[++i];
+			else if(args[i].equals("--load") && i+1<args.length)
+				load = args[++i];
+			else if(args[i].equals("--events") && i+1<args.length)
+				events = args[++i];
+			else if(args[i].equals("--events-capacity") && i+1<args.length)
+				eventCapacity = Integer.parseInt(args[++i]);
+		}
+		if(load != null) {
+			record = null;
+			replay = null;
+		}
 
-		for(int i=0;i<num_enemies;i++)
-			enemies[i] = g.new Enemy();
+		//Recorded game is played with its own parameters
+		ReplayPlayer player = null;
+		if(replay != null) {
+			player = new ReplayPlayer(replay);
+			seed = player.getSeed();
+			width = player.getWidth();
+			height = player.getHeight();
+			num_enemies = player.getEnemies();
+			num_friends = player.getFriends();
+			pursuit = player.getPursuit();
+			dormancy = player.getDormancy();
+		}
 
-		for(int i=0;i<num_friends;i++)
-			friends[i] = g.new Friend();
+		//Saved world keeps its own size, seed, pursuit and dormancy
+		GameWorld world;
+		if(load != null) {
+			world = WorldSnapshot.load(Paths.get(load));
+			seed = world.getSeed();
 
-		Game.AirCraft aircraft = g.new AirCraft();
+			//Game of a world saved after its end can't go on (Window would wait for an end that never comes)
+			if(!world.isRunning()) {
+				String result = world.isWon() ? "You Won" : "Game Over";
+				System.out.println("Saved world is already over: " + result + " at tick " + world.getTickCount() + ", seed " + seed);
+				return;
+			}
+		}
+		else {
+			world = new GameWorld(width, height, seed);
+			world.setPursuit(pursuit);
+			world.setDormancy(dormancy);
+		}
+		world.setUpdateThreads(threads);
+		if(events != null)
+			world.setEventRecorder(new EventRecorder(Paths.get(events), eventCapacity, seed));
+		world.getMetrics().register("world");
+		if(player != null)
+			world.setReplay(player);
+		InputRecorder recorder = null;
+		if(record != null) {
+			recorder = new InputRecorder(record, seed, width, height, num_enemies, num_friends, pursuit, dormancy);
+			world.setRecorder(recorder);
+		}
+		if(behaviours.equals("platform"))
+			world.setBehaviourExecutor(new BehaviourExecutor(BehaviourExecutor.Mode.PLATFORM, maxBehaviours));
+		else if(behaviours.equals("virtual"))
+			world.setBehaviourExecutor(new BehaviourExecutor(BehaviourExecutor.Mode.VIRTUAL, maxBehaviours));
 
-		aircraft.start();
-		for(int i=0;i<num_enemies;i++)
-			enemies[i].start();
+		//Behaviour threads sleep in real time, so headless runs always use the tick.
+		//Recorded and replayed games also use the tick (Behaviour threads don't run in the same order every time).
+		//Loaded worlds also use the tick (Their characters already have their timers)
+		if(headless || recorder != null || player != null || load != null)
+			world.setBehaviourExecutor(null);
+		if(load == null) {
+			int[] enemies = world.spawnEnemies(num_enemies);
+			int[] friends = world.spawnFriends(num_friends);
 
-		for(int i=0;i<num_friends;i++)
-			friends[i].start();
+			int aircraft = world.spawnAircraft();
 
-		try {
+			world.start(aircraft);
 			for(int i=0;i<num_enemies;i++)
-				enemies[i].join();
+				world.start(enemies[i]);
+
 			for(int i=0;i<num_friends;i++)
-				friends[i].join();
-			aircraft.join();
+				world.start(friends[i]);
+		}
+
+		if(headless) {
+			long start = System.nanoTime();
+			long ticks = world.runHeadless(maxTicks);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			String result = !world.isGameOver() ? "Not finished" : world.isWon() ? "You Won" : "Game Over";
+			System.out.println(result + " after " + ticks + " ticks (" + seconds + " s), seed " + seed);
+			finish(world, recorder, player, metrics, save);
+			return;
+		}
+
+		new Game(world, fps, raster);
+		world.start();
+
+		try {
+			world.waitForEnd();
 		} catch (InterruptedException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
 		}
+		finish(world, recorder, player, metrics, save);
+	}
+
+	//Pursuit modes of the "--pursuit" argument
+	static int parsePursuit(String mode) {
+		if(mode.equals("enemies"))
+			return GameWorld.PURSUIT_ENEMIES;
+		if(mode.equals("friends"))
+			return GameWorld.PURSUIT_FRIENDS;
+		if(mode.equals("all"))
+			return GameWorld.PURSUIT_ENEMIES | GameWorld.PURSUIT_FRIENDS;
+		return 0;
+	}
+
+	//Closes the recording or checks the replay after the game. Saves the world if a file is given
+	static void finish(GameWorld world, InputRecorder recorder, ReplayPlayer player, boolean metrics, String save) throws IOException {
+		if(metrics)
+			System.out.println(world.getMetrics().summary());
+
+		if(recorder != null)
+			recorder.finish(world.getTickCount(), world.checksum());
+
+		if(player != null) {
+			boolean same = player.isFinished() && player.getLastTick() == world.getTickCount() && player.getChecksum() == world.checksum();
+			System.out.println(same ? "Replay is the same as the recorded game" : "Replay is different from the recorded game");
+			player.close();
+		}
+
+		if(world.getEventRecorder() != null)
+			world.getEventRecorder().close();
+
+		if(save != null) {
+			WorldSnapshot.save(world, Paths.get(save));
+			System.out.println("World is saved into " + save + " at tick " + world.getTickCount());
+		}
 	}
-}
\ No newline at end of file
+}
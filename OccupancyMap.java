@@ -0,0 +1,162 @@
+//************************************************************************************
+// OccupancyMap.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Keeps which cells of the 10px lattice are occupied by characters. Occupied cells are kept in a bitmap and
+// empty cells in a free cell set (Dense array + index of every cell in it), so finding a random empty cell,
+// occupying it and freeing it all take constant time.
+//************************************************************************************
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class OccupancyMap {
+
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    //Bit of the cell is 1 if at least one character is in it
+    private final long[] occupied;
+
+    //Number of characters in every cell (Characters may share a cell for a short time, ex: two enemies)
+    private final int[] counts;
+
+    //Empty cells. freeIndex[cell] is the index of the cell in free (-1 if the cell is occupied)
+    private final int[] free;
+    private final int[] freeIndex;
+    private int freeCount;
+
+    public OccupancyMap(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, width / cellSize);
+        rows = Math.max(1, height / cellSize);
+
+        int cells = columns * rows;
+        occupied = new long[(cells + 63) / 64];
+        counts = new int[cells];
+        free = new int[cells];
+        freeIndex = new int[cells];
+
+        //All the cells are empty at the start
+        for (int cell = 0; cell < cells; cell++) {
+            free[cell] = cell;
+            freeIndex[cell] = cell;
+        }
+        freeCount = cells;
+    }
+
+    //Cell of the given position (-1 if the position is outside of the map)
+    public int cellOf(int x, int y) {
+        if (x < 0 || y < 0)
+            return -1;
+
+        int column = x / cellSize;
+        int row = y / cellSize;
+        if (column >= columns || row >= rows)
+            return -1;
+        return row * columns + column;
+    }
+
+    //Top left x coordinate of the cell
+    public int cellX(int cell) {
+        return (cell % columns) * cellSize;
+    }
+
+    //Top left y coordinate of the cell
+    public int cellY(int cell) {
+        return (cell / columns) * cellSize;
+    }
+
+    //Adds a character to the cell of the given position. Positions outside of the map are ignored
+    public void add(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell == -1)
+            return;
+
+        if (counts[cell]++ == 0) {
+            occupied[cell >> 6] |= 1L << cell;
+
+            //Removes the cell from the free set (Last free cell is moved to its place)
+            int index = freeIndex[cell];
+            int last = free[--freeCount];
+            free[index] = last;
+            freeIndex[last] = index;
+            freeIndex[cell] = -1;
+        }
+    }
+
+    //Removes a character from the cell of the given position. Positions outside of the map are ignored
+    public void remove(int x, int y) {
+        int cell = cellOf(x, y);
+        if (cell == -1 || counts[cell] == 0)
+            return;
+
+        if (--counts[cell] == 0) {
+            occupied[cell >> 6] &= ~(1L << cell);
+
+            //Adds the cell to the end of the free set
+            free[freeCount] = cell;
+            freeIndex[cell] = freeCount;
+            freeCount++;
+        }
+    }
+
+    //Moves a character from one position to another
+    public void move(int oldX, int oldY, int newX, int newY) {
+        if (cellOf(oldX, oldY) == cellOf(newX, newY))
+            return;
+        remove(oldX, oldY);
+        add(newX, newY);
+    }
+
+    //Marks the cell of the given position as occupied forever (ex: start position of the aircraft)
+    public void reserve(int x, int y) {
+        add(x, y);
+    }
+
+    public boolean isOccupied(int x, int y) {
+        int cell = cellOf(x, y);
+        return cell != -1 && (occupied[cell >> 6] & (1L << cell)) != 0;
+    }
+
+    //Number of empty cells
+    public int getFreeCount() {
+        return freeCount;
+    }
+
+    //Returns a random empty cell (-1 if all the cells are occupied). Cell stays empty until a character is added
+    public int randomFreeCell(Random generator) {
+        if (freeCount == 0)
+            return -1;
+        return free[generator.nextInt(freeCount)];
+    }
+
+    //Writes the cells into a snapshot (Order of the free set is kept, so random free cells are the same after loading)
+    void save(WorldSnapshot.Output output) {
+        output.putInt(freeCount);
+        output.putLongs(occupied, occupied.length);
+        output.putInts(counts, counts.length);
+        output.putInts(free, free.length);
+        output.putInts(freeIndex, freeIndex.length);
+    }
+
+    //Replaces the cells with a snapshot written by save (Map needs the same size)
+    void load(WorldSnapshot.Input input) {
+        freeCount = input.getInt();
+        input.getLongs(occupied);
+        input.getInts(counts);
+        input.getInts(free);
+        input.getInts(freeIndex);
+    }
+
+    //Marks all the cells as empty
+    public void clear() {
+        Arrays.fill(occupied, 0);
+        Arrays.fill(counts, 0);
+        for (int cell = 0; cell < counts.length; cell++) {
+            free[cell] = cell;
+            freeIndex[cell] = cell;
+        }
+        freeCount = counts.length;
+    }
+}
@@ -0,0 +1,91 @@
+//************************************************************************************
+// OverlapQueue.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Characters that overlap another character and have to move away from it (ex: Two enemies in the same cell).
+// Collision checks only add the character here, the world moves them later in its resolution pass with a fixed
+// budget in every tick. Characters that are not moved in a tick stay in the queue for the next tick.
+// Characters are kept with their handles (Their slots may be reused before they are moved), and a character is
+// never in the queue twice. First in first out, so the order is the same in every run.
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class OverlapQueue {
+
+    //Ring buffer of the handles
+    private int[] handles = new int[64];
+    private int head = 0;
+    private int count = 0;
+
+    //Handle that is waiting in the queue for every slot (-1 if none)
+    private int[] queued = new int[64];
+
+    public OverlapQueue() {
+        Arrays.fill(queued, -1);
+    }
+
+    //Adds the character with the given slot and handle (Nothing happens if it is already waiting)
+    public void add(int slot, int handle) {
+        if (slot >= queued.length) {
+            int oldCapacity = queued.length;
+            queued = Arrays.copyOf(queued, Math.max(slot + 1, oldCapacity * 2));
+            Arrays.fill(queued, oldCapacity, queued.length, -1);
+        }
+        if (queued[slot] == handle)
+            return;
+        queued[slot] = handle;
+
+        if (count == handles.length) {
+            //Unrolls the ring into a bigger array
+            int[] grown = new int[count * 2];
+            for (int i = 0; i < count; i++)
+                grown[i] = handles[(head + i) % handles.length];
+            handles = grown;
+            head = 0;
+        }
+        handles[(head + count) % handles.length] = handle;
+        count++;
+    }
+
+    //Removes and returns the oldest handle (-1 if the queue is empty)
+    public int poll() {
+        if (count == 0)
+            return -1;
+
+        int handle = handles[head];
+        head = (head + 1) % handles.length;
+        count--;
+
+        int slot = CharacterStore.slotOf(handle);
+        if (queued[slot] == handle)
+            queued[slot] = -1;
+        return handle;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    //Writes the waiting handles into a snapshot (Oldest first)
+    void save(WorldSnapshot.Output output) {
+        output.putInt(count);
+        for (int i = 0; i < count; i++)
+            output.putInt(handles[(head + i) % handles.length]);
+    }
+
+    //Replaces the waiting handles with a snapshot written by save
+    void load(WorldSnapshot.Input input) {
+        clear();
+        int saved = input.getInt();
+        for (int i = 0; i < saved; i++) {
+            int handle = input.getInt();
+            add(CharacterStore.slotOf(handle), handle);
+        }
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        Arrays.fill(queued, -1);
+    }
+}
@@ -0,0 +1,143 @@
+//************************************************************************************
+// ParallelBulletQuery.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Finds the characters under the bullets that step in a tick on a ForkJoinPool.
+// Bullets are divided into horizontal strips of the world by their positions and every strip is one task,
+// so the threads read different parts of the spatial grid. Queries only read the world (Nothing is changed
+// while they run). Results are kept by the index of the bullet in the tick's order, so the world applies
+// them (Kills, deleted bullets) in the same order as the serial update and the result is the same.
+// Only the queries are parallel. Moves, character collisions, kills and the bullet moves change the world and take
+// numbers from the world's generators in the tick's order, so they stay serial (Results don't depend on the threads).
+//************************************************************************************
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class ParallelBulletQuery {
+
+    //At most this many characters are kept for a bullet. Bullets with more are checked again serially
+    static final int MAX_HITS = 4;
+
+    private final ForkJoinPool pool;
+    private final GameWorld world;
+
+    //Number of strips (A few for every thread, so the busy strips are balanced)
+    private final int stripCount;
+    private final int stripHeight;
+
+    //Slots of the stepping bullets (In the tick's order)
+    private int[] bullets = new int[256];
+    private int count = 0;
+
+    //Ids of the characters under every bullet (MAX_HITS per bullet) and their counts (-1 if there are more)
+    private int[] hits = new int[256 * MAX_HITS];
+    private int[] hitCounts = new int[256];
+
+    //Bullet indexes sorted by their strips. Strip s has the indexes from stripStart[s] to stripStart[s+1]-1
+    private int[] order = new int[256];
+    private final int[] stripStart;
+    private final int[] stripNext;
+
+    public ParallelBulletQuery(GameWorld world, int threads) {
+        this.world = world;
+        pool = new ForkJoinPool(threads);
+        stripCount = threads * 4;
+        stripHeight = Math.max(1, (world.getHeight() + stripCount - 1) / stripCount);
+        stripStart = new int[stripCount + 1];
+        stripNext = new int[stripCount];
+    }
+
+    public int getThreads() {
+        return pool.getParallelism();
+    }
+
+    //Stops the threads of the pool (The query can't be used after it)
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //Removes the bullets of the previous tick
+    void clear() {
+        count = 0;
+    }
+
+    //Adds a stepping bullet. Returns its index
+    int add(int bullet) {
+        if (count == bullets.length) {
+            bullets = Arrays.copyOf(bullets, count * 2);
+            hitCounts = Arrays.copyOf(hitCounts, count * 2);
+            order = Arrays.copyOf(order, count * 2);
+            hits = Arrays.copyOf(hits, count * 2 * MAX_HITS);
+        }
+        bullets[count] = bullet;
+        return count++;
+    }
+
+    int size() {
+        return count;
+    }
+
+    int bullet(int index) {
+        return bullets[index];
+    }
+
+    //Characters found for the bullet at the given index are from hits[index * MAX_HITS] (-1 if there were too many)
+    int hitCount(int index) {
+        return hitCounts[index];
+    }
+
+    int[] hits() {
+        return hits;
+    }
+
+    //Runs the queries of all the added bullets and waits for them. Caller holds the world lock
+    void run() {
+        //Sorts the bullet indexes by strip (Counting sort)
+        Arrays.fill(stripStart, 0);
+        for (int i = 0; i < count; i++)
+            stripStart[stripOf(bullets[i]) + 1]++;
+        for (int s = 0; s < stripCount; s++)
+            stripStart[s + 1] += stripStart[s];
+
+        System.arraycopy(stripStart, 0, stripNext, 0, stripCount);
+        for (int i = 0; i < count; i++)
+            order[stripNext[stripOf(bullets[i])]++] = i;
+
+        pool.invoke(new StripTask(0, stripCount));
+    }
+
+    //Strip of the bullet's position
+    private int stripOf(int bullet) {
+        return Math.min(stripCount - 1, Math.max(0, world.bullets.positionY[bullet] / stripHeight));
+    }
+
+    //Queries of the strips from first to last-1. Divided into two tasks until it is one strip
+    private class StripTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int first;
+        private final int last;
+
+        StripTask(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first > 1) {
+                int middle = (first + last) >>> 1;
+                invokeAll(new StripTask(first, middle), new StripTask(middle, last));
+                return;
+            }
+
+            for (int i = stripStart[first]; i < stripStart[last]; i++) {
+                int index = order[i];
+                int bullet = bullets[index];
+                hitCounts[index] = world.collectCharactersAt(world.bullets.positionX[bullet], world.bullets.positionY[bullet],
+                        hits, index * MAX_HITS, MAX_HITS);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+//************************************************************************************
+// RasterPainter.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Paints a RenderSnapshot by writing the pixels of the rectangles straight into the int[] of a BufferedImage
+// (No Graphics call per rectangle). Rectangles are grouped by their colors first (Stable, so the painting order
+// of the layers stays the same), every group is filled with one color value.
+// Background is painted once into a cached array and copied into the image at the start of every frame.
+// The image is shown with one drawImage call per frame.
+//************************************************************************************
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+public class RasterPainter {
+
+    private final int width;
+    private final int height;
+
+    //Image of the frame and its pixels (Writing the array changes the image)
+    private final BufferedImage image;
+    private final int[] pixels;
+
+    //Background layer. Copied into the pixels at the start of every frame
+    private final int[] background;
+
+    //Colors found in the current snapshot (In the order of their first rectangle) and their rectangle counts
+    private int[] colors = new int[8];
+    private int[] colorStart = new int[9];
+    private int colorCount = 0;
+
+    //Indexes of the snapshot's rectangles grouped by color
+    private int[] order = new int[64];
+
+    public RasterPainter(int width, int height, int backgroundRgb) {
+        this.width = width;
+        this.height = height;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        background = new int[width * height];
+        Arrays.fill(background, backgroundRgb & 0xFFFFFF);
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    //Paints the background and all the rectangles of the snapshot into the image.
+    //Top left corner of the snapshot's viewport is painted at 0,0
+    public BufferedImage paint(RenderSnapshot snapshot) {
+        System.arraycopy(background, 0, pixels, 0, pixels.length);
+        groupByColor(snapshot);
+
+        int originX = snapshot.originX;
+        int originY = snapshot.originY;
+        for (int c = 0; c < colorCount; c++) {
+            int rgb = colors[c] & 0xFFFFFF;
+            for (int i = colorStart[c]; i < colorStart[c + 1]; i++) {
+                int index = order[i];
+                int size = snapshot.size[index];
+
+                //Clips the rectangle to the image
+                int left = Math.max(0, snapshot.positionX[index] - originX);
+                int top = Math.max(0, snapshot.positionY[index] - originY);
+                int right = Math.min(width, snapshot.positionX[index] - originX + size);
+                int bottom = Math.min(height, snapshot.positionY[index] - originY + size);
+                if (left >= right)
+                    continue;
+
+                for (int y = top; y < bottom; y++) {
+                    int row = y * width;
+                    Arrays.fill(pixels, row + left, row + right, rgb);
+                }
+            }
+        }
+        return image;
+    }
+
+    //Sorts the rectangle indexes of the snapshot by color (Counting sort). Colors keep the order of their first
+    //rectangle, so a layer that is painted first in the snapshot (ex: bullets) is still painted first
+    private void groupByColor(RenderSnapshot snapshot) {
+        int count = snapshot.count;
+        if (order.length < count)
+            order = new int[Math.max(count, order.length * 2)];
+
+        //Counts the rectangles of every color (There are only a few colors, so a linear search is enough)
+        colorCount = 0;
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            int rgb = snapshot.rgb[i];
+            if (last == -1 || colors[last] != rgb)
+                last = indexOfColor(rgb);
+            colorStart[last + 1]++;
+        }
+
+        for (int c = 0; c < colorCount; c++)
+            colorStart[c + 1] += colorStart[c];
+
+        //Places every index into its group. colorStart[c] is moved to the end of the group while filling
+        for (int i = 0; i < count; i++) {
+            int rgb = snapshot.rgb[i];
+            if (colors[last] != rgb)
+                last = indexOfColor(rgb);
+            order[colorStart[last]++] = i;
+        }
+
+        //Moves the starts back to their places
+        for (int c = colorCount; c > 0; c--)
+            colorStart[c] = colorStart[c - 1];
+        colorStart[0] = 0;
+    }
+
+    //Index of the color in colors. Adds the color if it is new
+    private int indexOfColor(int rgb) {
+        for (int c = 0; c < colorCount; c++) {
+            if (colors[c] == rgb)
+                return c;
+        }
+
+        if (colorCount == colors.length) {
+            colors = Arrays.copyOf(colors, colorCount * 2);
+            colorStart = Arrays.copyOf(colorStart, colorCount * 2 + 1);
+        }
+        colors[colorCount] = rgb;
+        colorStart[colorCount + 1] = 0;
+        return colorCount++;
+    }
+}
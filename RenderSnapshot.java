@@ -0,0 +1,113 @@
+//************************************************************************************
+// RenderSnapshot.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Positions, sizes and colors of everything that is painted, copied from the world at the end of a tick.
+// Snapshots are exchanged between the simulation and the painter with a triple buffer (Exchange),
+// so the painter never waits for the simulation and the simulation never waits for the painter.
+//************************************************************************************
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RenderSnapshot {
+
+    //Rectangles in painting order (Bullets, enemies, friends and the aircraft)
+    int[] positionX = new int[64];
+    int[] positionY = new int[64];
+    int[] size = new int[64];
+    int[] rgb = new int[64];
+    int count = 0;
+
+    //Tick that this snapshot shows
+    long tick;
+
+    //Time (System.nanoTime) of the oldest input event of the newest tick with input up to this snapshot (0 if none).
+    //Painter measures the input latency when it shows the first snapshot with a new value
+    long inputTime;
+
+    //Top left corner of the viewport in the world. Rectangles are in world coordinates, painter shifts them by this
+    int originX;
+    int originY;
+
+    //Clears the snapshot before the simulation writes the next tick into it
+    void clear(long tick, int originX, int originY) {
+        this.tick = tick;
+        this.originX = originX;
+        this.originY = originY;
+        count = 0;
+    }
+
+    //Adds one rectangle to the end of the snapshot
+    void add(int x, int y, int size, int rgb) {
+        if (count == positionX.length) {
+            int capacity = count * 2;
+            positionX = Arrays.copyOf(positionX, capacity);
+            positionY = Arrays.copyOf(positionY, capacity);
+            this.size = Arrays.copyOf(this.size, capacity);
+            this.rgb = Arrays.copyOf(this.rgb, capacity);
+        }
+
+        positionX[count] = x;
+        positionY[count] = y;
+        this.size[count] = size;
+        this.rgb[count] = rgb;
+        count++;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getInputTime() {
+        return inputTime;
+    }
+
+    public int getOriginX() {
+        return originX;
+    }
+
+    public int getOriginY() {
+        return originY;
+    }
+
+    //Triple buffer of snapshots. One writer (Simulation) and one reader (Painter).
+    //Writer fills its back snapshot and publishes it, reader takes the newest published snapshot.
+    //Neither of them blocks and no snapshot is allocated after the start.
+    public static class Exchange {
+
+        //Bit of the state that shows the middle snapshot is newer than the reader's one
+        private static final int FRESH = 4;
+
+        private final RenderSnapshot[] snapshots = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+
+        //Index of the middle snapshot and the FRESH bit
+        private final AtomicInteger state = new AtomicInteger(1);
+
+        //Only used by the writer
+        private int back = 0;
+
+        //Only used by the reader
+        private int front = 2;
+
+        //Snapshot that the writer fills
+        public RenderSnapshot back() {
+            return snapshots[back];
+        }
+
+        //Publishes the back snapshot and gets a new one to write into
+        public void publish() {
+            back = state.getAndSet(back | FRESH) & 3;
+        }
+
+        //Returns the newest published snapshot. Same snapshot is returned until a newer one is published
+        public RenderSnapshot acquire() {
+            if ((state.get() & FRESH) != 0)
+                front = state.getAndSet(front) & 3;
+            return snapshots[front];
+        }
+    }
+}
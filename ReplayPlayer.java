@@ -0,0 +1,136 @@
+//************************************************************************************
+// ReplayPlayer.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Replays a file written by the InputRecorder. The world is created with the recorded parameters and the
+// recorded input events are given to the world in the same ticks, so the game is repeated exactly.
+// Events are read from the file while the game runs (The whole file is never loaded).
+// At the end of the file the checksum of the replayed world can be compared with the recorded one.
+//************************************************************************************
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+public class ReplayPlayer implements Closeable {
+
+    private final DataInputStream input;
+
+    //Parameters of the recorded world
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final int enemies;
+    private final int friends;
+    private final int pursuit;
+    private final int dormancy;
+
+    //Next event of the file (nextCode is InputRecorder.END at the end of the file)
+    private long nextTick = 0;
+    private int nextCode;
+
+    //Written at the end of the file
+    private long lastTick = -1;
+    private long checksum;
+
+    public ReplayPlayer(String path) throws IOException {
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(path)));
+        if (input.readInt() != InputRecorder.MAGIC)
+            throw new IOException("Not a recorded game: " + path);
+        int version = input.readShort();
+        if (version != InputRecorder.VERSION)
+            throw new IOException("Unsupported version of the recorded game: " + version);
+
+        seed = input.readLong();
+        width = input.readInt();
+        height = input.readInt();
+        enemies = input.readInt();
+        friends = input.readInt();
+        pursuit = input.readInt();
+        dormancy = input.readInt();
+        readNext();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getEnemies() {
+        return enemies;
+    }
+
+    public int getFriends() {
+        return friends;
+    }
+
+    //Pursuit modes of the recorded world (Bits of GameWorld.PURSUIT_ENEMIES and GameWorld.PURSUIT_FRIENDS)
+    public int getPursuit() {
+        return pursuit;
+    }
+
+    //Radius of the active chunks of the recorded world (0 if there are no dormant chunks)
+    public int getDormancy() {
+        return dormancy;
+    }
+
+    //Last tick of the recorded game (-1 until the end of the file is read)
+    public long getLastTick() {
+        return lastTick;
+    }
+
+    //Checksum of the recorded world at its last tick
+    public long getChecksum() {
+        return checksum;
+    }
+
+    //True if all the events are given to the world
+    public boolean isFinished() {
+        return nextCode == InputRecorder.END;
+    }
+
+    //Gives the recorded events of the given tick to the queue (Called by the simulation at the start of the tick)
+    public void feed(long tick, InputQueue queue) {
+        try {
+            while (nextCode != InputRecorder.END && nextTick == tick) {
+                queue.offer(nextCode >> 4, nextCode & 0xF);
+                readNext();
+            }
+        } catch (IOException e) {
+            //File is broken. Rest of the game is played without input
+            nextCode = InputRecorder.END;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    //Reads the next event (Or the end of the file)
+    private void readNext() throws IOException {
+        long delta = 0;
+        int shift = 0;
+        int part;
+        do {
+            part = input.readUnsignedByte();
+            delta |= (long) (part & 0x7F) << shift;
+            shift += 7;
+        } while ((part & 0x80) != 0);
+
+        nextTick += delta;
+        nextCode = input.readUnsignedByte();
+        if (nextCode == InputRecorder.END) {
+            lastTick = input.readLong();
+            checksum = input.readLong();
+        }
+    }
+}
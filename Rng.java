@@ -0,0 +1,62 @@
+//************************************************************************************
+// Rng.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Seedable and splittable random number generator (SplitMix64). Whole state is one long, so it can be saved
+// and restored exactly. split() creates an independent generator from this one, so every part of the world
+// (Spawning, movement, timers) has its own stream and they are all derived from one seed.
+// Extends Random, so it can be given to the code that takes a Random (ex: OccupancyMap, TimingWheel).
+// Not thread safe (Only used by the simulation).
+//************************************************************************************
+
+import java.util.Random;
+
+public class Rng extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+
+    public Rng(long seed) {
+        state = seed;
+    }
+
+    //Random calls this in its constructor
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    //Used by all the other methods of Random (nextInt, nextBoolean...)
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    //Creates a new generator whose stream is independent from this one
+    public Rng split() {
+        return new Rng(mix(nextLong()));
+    }
+
+    //Finalizer of SplitMix64
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
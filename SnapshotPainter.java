@@ -0,0 +1,36 @@
+//************************************************************************************
+// SnapshotPainter.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Paints a RenderSnapshot with a Graphics object (ex: the back buffer of the MainPanel or an offscreen image).
+//************************************************************************************
+
+import java.awt.*;
+
+public class SnapshotPainter {
+
+    //Last used color. Avoids creating a Color object for every rectangle
+    private Color color = Color.BLACK;
+
+    //Paints all the bullets, enemies, friends and the aircraft of the given snapshot (In this order).
+    //Top left corner of the snapshot's viewport is painted at 0,0
+    public void paint(Graphics g, RenderSnapshot snapshot) {
+        int originX = snapshot.originX;
+        int originY = snapshot.originY;
+        for (int i = 0; i < snapshot.count; i++) {
+            if (color.getRGB() != snapshot.rgb[i])
+                color = new Color(snapshot.rgb[i], true);
+
+            g.setColor(color);
+            g.fillRect(snapshot.positionX[i] - originX, snapshot.positionY[i] - originY, snapshot.size[i], snapshot.size[i]);
+        }
+
+        //Drawing grids
+        /*
+        for(int i=0;i<=500;i+=10) {
+            g.setColor(Color.BLACK);
+            g.drawLine(0, i, 500, i);
+            g.drawLine(i, 0, i, 500);
+        }
+         */
+    }
+}
@@ -0,0 +1,151 @@
+//************************************************************************************
+// SpatialGrid.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Uniform grid over the game area. Every entity (Identified with an int id) is kept in the linked list of the cell
+// that contains its top left corner, so collision queries only look at a few cells instead of all the entities.
+// Lists are stored in int arrays (No allocation on insert, move or remove).
+//************************************************************************************
+
+import java.util.Arrays;
+
+public class SpatialGrid {
+
+    //Width and height of one cell in the type of pixels
+    private final int cellSize;
+    private final int columns;
+    private final int rows;
+
+    //First id in every cell (-1 if the cell is empty)
+    private final int[] head;
+
+    //Linked list links and cell of every id (-1 if the id is not in the grid)
+    private int[] next;
+    private int[] previous;
+    private int[] cellOf;
+
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (width + cellSize - 1) / cellSize);
+        rows = Math.max(1, (height + cellSize - 1) / cellSize);
+
+        head = new int[columns * rows];
+        Arrays.fill(head, -1);
+
+        next = new int[0];
+        previous = new int[0];
+        cellOf = new int[0];
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    //Column of the given x coordinate. Coordinates outside of the grid are clamped to the border cells
+    public int column(int x) {
+        return Math.min(columns - 1, Math.max(0, Math.floorDiv(x, cellSize)));
+    }
+
+    //Row of the given y coordinate. Coordinates outside of the grid are clamped to the border cells
+    public int row(int y) {
+        return Math.min(rows - 1, Math.max(0, Math.floorDiv(y, cellSize)));
+    }
+
+    //Adds the id to the cell of the given position
+    public void insert(int id, int x, int y) {
+        ensureCapacity(id + 1);
+        if (cellOf[id] != -1)
+            remove(id);
+
+        int cell = row(y) * columns + column(x);
+        cellOf[id] = cell;
+        previous[id] = -1;
+        next[id] = head[cell];
+        if (head[cell] != -1)
+            previous[head[cell]] = id;
+        head[cell] = id;
+    }
+
+    //Moves the id to the cell of the given position. Does nothing if the cell is the same
+    public void update(int id, int x, int y) {
+        int cell = row(y) * columns + column(x);
+        if (id < cellOf.length && cellOf[id] == cell)
+            return;
+        insert(id, x, y);
+    }
+
+    //Removes the id from the grid (If it is in the grid)
+    public void remove(int id) {
+        if (id >= cellOf.length || cellOf[id] == -1)
+            return;
+
+        if (previous[id] != -1)
+            next[previous[id]] = next[id];
+        else
+            head[cellOf[id]] = next[id];
+
+        if (next[id] != -1)
+            previous[next[id]] = previous[id];
+
+        cellOf[id] = -1;
+        next[id] = -1;
+        previous[id] = -1;
+    }
+
+    //First id in the given cell (-1 if the cell is empty)
+    public int first(int column, int row) {
+        return head[row * columns + column];
+    }
+
+    //Next id in the same cell with the given id (-1 if it is the last one)
+    public int next(int id) {
+        return next[id];
+    }
+
+    //Removes all the ids from the grid
+    public void clear() {
+        Arrays.fill(head, -1);
+        Arrays.fill(cellOf, -1);
+        Arrays.fill(next, -1);
+        Arrays.fill(previous, -1);
+    }
+
+    //Writes the lists of the grid into a snapshot
+    void save(WorldSnapshot.Output output) {
+        output.putInts(head, head.length);
+        output.putInts(next, next.length);
+        output.putInts(previous, previous.length);
+        output.putInts(cellOf, cellOf.length);
+    }
+
+    //Replaces the lists of the grid with a snapshot written by save (Grid needs the same size)
+    void load(WorldSnapshot.Input input) {
+        input.getInts(head);
+        next = input.getInts(0);
+        previous = input.getInts(0);
+        cellOf = input.getInts(0);
+    }
+
+    //Grows the per id arrays so that ids up to capacity-1 can be inserted
+    private void ensureCapacity(int capacity) {
+        if (capacity <= cellOf.length)
+            return;
+
+        int newCapacity = Math.max(capacity, Math.max(16, cellOf.length * 2));
+        int oldCapacity = cellOf.length;
+
+        next = Arrays.copyOf(next, newCapacity);
+        previous = Arrays.copyOf(previous, newCapacity);
+        cellOf = Arrays.copyOf(cellOf, newCapacity);
+        Arrays.fill(next, oldCapacity, newCapacity, -1);
+        Arrays.fill(previous, oldCapacity, newCapacity, -1);
+        Arrays.fill(cellOf, oldCapacity, newCapacity, -1);
+    }
+}
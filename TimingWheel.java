@@ -0,0 +1,255 @@
+//************************************************************************************
+// TimingWheel.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Hashed timing wheel that runs all the timed actions of the world (Moves, shots and bullet steps).
+// Every timer is kept in the slot of its deadline tick (deadline & mask). Scheduling and cancelling
+// take constant time. advance() moves the wheel one tick and collects all the timers of that tick
+// into a batch, which the world processes together. Timers whose deadline is more than one turn
+// of the wheel away stay in their slot until their turn comes.
+// Timers are stored in int arrays and reused, so scheduling does not allocate.
+//************************************************************************************
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TimingWheel {
+
+    private final int mask;
+
+    //First timer in every slot (-1 if the slot is empty)
+    private final int[] slotHead;
+
+    //Timer pool. Every timer has a kind and a target (ex: MOVE and the slot of the character)
+    private int[] next;
+    private int[] previous;
+    private long[] deadline;
+    private int[] period;
+    private int[] jitter;
+    private int[] kind;
+    private int[] target;
+    private boolean[] scheduled;
+
+    //Empty timers that can be reused (Used like a stack)
+    private int[] free;
+    private int freeCount = 0;
+    private int timerCount = 0;
+
+    //Timers cancelled during the current batch. They are reused only after the batch (At the next advance)
+    private int[] released;
+    private int releasedCount = 0;
+
+    //Timers that fired in the last advance()
+    private int[] fired;
+    private int firedCount = 0;
+
+    private long currentTick = 0;
+
+    //Random delays added to the periods (Spreads the timers of large waves over different ticks)
+    private Random generator = new Random();
+
+    //slots is rounded up to a power of two (At most 2^30)
+    public TimingWheel(int slots, int initialCapacity) {
+        int size = Integer.highestOneBit(Math.max(2, Math.min(slots, 1 << 30) - 1)) << 1;
+        mask = size - 1;
+        slotHead = new int[size];
+        Arrays.fill(slotHead, -1);
+
+        initialCapacity = Math.max(16, initialCapacity);
+        next = new int[initialCapacity];
+        previous = new int[initialCapacity];
+        deadline = new long[initialCapacity];
+        period = new int[initialCapacity];
+        jitter = new int[initialCapacity];
+        kind = new int[initialCapacity];
+        target = new int[initialCapacity];
+        scheduled = new boolean[initialCapacity];
+        free = new int[initialCapacity];
+        released = new int[initialCapacity];
+        fired = new int[initialCapacity];
+    }
+
+    public void setRandom(Random generator) {
+        this.generator = generator;
+    }
+
+    //Schedules a timer that fires delay ticks later (At least 1). If period is bigger than 0, the timer
+    //fires again in every period (Plus a random 0 to jitter ticks) until it is cancelled. Returns the timer
+    public int schedule(int kind, int target, int delay, int period, int jitter) {
+        int timer;
+        if (freeCount > 0)
+            timer = free[--freeCount];
+        else {
+            if (timerCount == scheduled.length)
+                grow();
+            timer = timerCount++;
+        }
+
+        this.kind[timer] = kind;
+        this.target[timer] = target;
+        this.period[timer] = period;
+        this.jitter[timer] = jitter;
+        scheduled[timer] = true;
+        link(timer, currentTick + Math.max(1, delay));
+        return timer;
+    }
+
+    //Cancels the timer. Cancelling a cancelled or fired one shot timer does nothing
+    public void cancel(int timer) {
+        if (timer < 0 || !scheduled[timer])
+            return;
+
+        unlink(timer);
+        scheduled[timer] = false;
+        released[releasedCount++] = timer;
+    }
+
+    //Moves the wheel one tick forward and collects the timers of the new tick. Returns the number of fired timers.
+    //Periodic timers are already scheduled again when they are returned (The world cancels them if needed)
+    public int advance() {
+        //Cancelled timers are reusable after the previous batch is processed
+        for (int i = 0; i < releasedCount; i++)
+            free[freeCount++] = released[i];
+        releasedCount = 0;
+
+        currentTick++;
+        firedCount = 0;
+
+        int timer = slotHead[(int) (currentTick & mask)];
+        while (timer != -1) {
+            int nextTimer = next[timer];
+
+            //Timers of the later turns of the wheel stay in the slot
+            if (deadline[timer] <= currentTick) {
+                if (firedCount == fired.length)
+                    fired = Arrays.copyOf(fired, firedCount * 2);
+                fired[firedCount++] = timer;
+
+                unlink(timer);
+                if (period[timer] > 0) {
+                    int delay = period[timer];
+                    if (jitter[timer] > 0)
+                        delay += generator.nextInt(jitter[timer] + 1);
+                    link(timer, currentTick + delay);
+                }
+                else {
+                    //One shot timers are released after the batch
+                    scheduled[timer] = false;
+                    released[releasedCount++] = timer;
+                }
+            }
+            timer = nextTimer;
+        }
+        return firedCount;
+    }
+
+    //Timer at the given index of the last batch
+    public int fired(int index) {
+        return fired[index];
+    }
+
+    public int kind(int timer) {
+        return kind[timer];
+    }
+
+    public int target(int timer) {
+        return target[timer];
+    }
+
+    //True if the timer is still scheduled (Not cancelled)
+    public boolean isScheduled(int timer) {
+        return scheduled[timer];
+    }
+
+    //Ticks left until the timer fires
+    public long remaining(int timer) {
+        return deadline[timer] - currentTick;
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    //Number of scheduled timers
+    public int size() {
+        return timerCount - freeCount - releasedCount;
+    }
+
+    //Writes the wheel into a snapshot (Current tick, counts, slots of the wheel, the used timers, free and released timers).
+    //Has to be called between two batches (Timers that fired are not written)
+    void save(WorldSnapshot.Output output) {
+        output.putLong(currentTick);
+        output.putInt(timerCount);
+        output.putInt(freeCount);
+        output.putInt(releasedCount);
+        output.putInts(slotHead, slotHead.length);
+        output.putInts(next, timerCount);
+        output.putInts(previous, timerCount);
+        output.putLongs(deadline, timerCount);
+        output.putInts(period, timerCount);
+        output.putInts(jitter, timerCount);
+        output.putInts(kind, timerCount);
+        output.putInts(target, timerCount);
+        output.putBooleans(scheduled, timerCount);
+        output.putInts(free, freeCount);
+        output.putInts(released, releasedCount);
+    }
+
+    //Replaces the contents of the wheel with a snapshot written by save (Wheel needs the same number of slots)
+    void load(WorldSnapshot.Input input) {
+        currentTick = input.getLong();
+        timerCount = input.getInt();
+        freeCount = input.getInt();
+        releasedCount = input.getInt();
+        input.getInts(slotHead);
+
+        int capacity = Math.max(16, timerCount);
+        next = input.getInts(capacity);
+        previous = input.getInts(capacity);
+        deadline = input.getLongs(capacity);
+        period = input.getInts(capacity);
+        jitter = input.getInts(capacity);
+        kind = input.getInts(capacity);
+        target = input.getInts(capacity);
+        scheduled = input.getBooleans(capacity);
+        free = input.getInts(capacity);
+        released = input.getInts(capacity);
+        firedCount = 0;
+    }
+
+    //Adds the timer to the slot of the deadline
+    private void link(int timer, long deadline) {
+        this.deadline[timer] = deadline;
+        int slot = (int) (deadline & mask);
+        previous[timer] = -1;
+        next[timer] = slotHead[slot];
+        if (slotHead[slot] != -1)
+            previous[slotHead[slot]] = timer;
+        slotHead[slot] = timer;
+    }
+
+    //Removes the timer from its slot
+    private void unlink(int timer) {
+        if (previous[timer] != -1)
+            next[previous[timer]] = next[timer];
+        else
+            slotHead[(int) (deadline[timer] & mask)] = next[timer];
+
+        if (next[timer] != -1)
+            previous[next[timer]] = previous[timer];
+    }
+
+    //Doubles the size of the timer pool
+    private void grow() {
+        int capacity = scheduled.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+        deadline = Arrays.copyOf(deadline, capacity);
+        period = Arrays.copyOf(period, capacity);
+        jitter = Arrays.copyOf(jitter, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+        target = Arrays.copyOf(target, capacity);
+        scheduled = Arrays.copyOf(scheduled, capacity);
+        free = Arrays.copyOf(free, capacity);
+        released = Arrays.copyOf(released, capacity);
+    }
+}
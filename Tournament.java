@@ -0,0 +1,368 @@
+//************************************************************************************
+// Tournament.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Plays many headless matches at the same time (One match per worker thread, as many workers as the processors)
+// and reports the matches per second, win rate, match lengths and the tick times of the matches.
+// Every match has its own world and its seed comes from the tournament seed, so a tournament gives the same
+// results every time. AirCraft is played by a policy that writes into the input queue of the world before every
+// tick (Like a player pressing the keys): "idle" never moves, "random" holds random keys and shoots randomly,
+// "patrol" flies a square and shoots at a fixed rate.
+//
+// Compile and run from the project directory:
+//     javac -d out *.java
+//     java -cp out Tournament [--matches N] [--enemies 10,20] [--friends 10] [--policy random] [--width N]
+//                             [--height N] [--ticks N] [--workers N] [--seed N] [--pursuit enemies|friends|all]
+//                             [--dormancy N] [--csv results.csv] [--matches-csv file] [--check-seeds]
+//
+// "--check-seeds" checks once before the matches that the policy of every match draws other numbers than the
+// spawn generator of its world (Stops the tournament if a policy would follow the spawn layout).
+//************************************************************************************
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class Tournament {
+
+    //Plays the aircraft of a match. act is called before every tick by the match's worker
+    interface Policy {
+        void act(long tick, InputQueue input, Rng generator);
+    }
+
+    //Never moves or shoots (Aircraft stays in the center like the old headless runs)
+    static class IdlePolicy implements Policy {
+        public void act(long tick, InputQueue input, Rng generator) {
+        }
+    }
+
+    //Holds one random direction (Or none) for a random time and shoots in about every fourth tick
+    static class RandomPolicy implements Policy {
+        int heldKey = -1;
+        long releaseTick = 0;
+
+        public void act(long tick, InputQueue input, Rng generator) {
+            if (tick >= releaseTick) {
+                if (heldKey != -1)
+                    input.offer(InputQueue.KEY_UP, heldKey);
+
+                heldKey = generator.nextInt(5) - 1;
+                if (heldKey != -1)
+                    input.offer(InputQueue.KEY_DOWN, heldKey);
+                releaseTick = tick + 1 + generator.nextInt(20);
+            }
+
+            if (generator.nextInt(4) == 0)
+                input.offer(InputQueue.SHOOT, 0);
+        }
+    }
+
+    //Flies a square (Up, left, down, right for sideTicks each) and shoots once in every shootTicks
+    static class PatrolPolicy implements Policy {
+        static final int[] DIRECTIONS = {InputQueue.UP, InputQueue.LEFT, InputQueue.DOWN, InputQueue.RIGHT};
+        int sideTicks = 8;
+        int shootTicks = 3;
+
+        public void act(long tick, InputQueue input, Rng generator) {
+            if (tick % sideTicks == 0) {
+                int side = (int) (tick / sideTicks % DIRECTIONS.length);
+                input.offer(InputQueue.KEY_UP, DIRECTIONS[(side + DIRECTIONS.length - 1) % DIRECTIONS.length]);
+                input.offer(InputQueue.KEY_DOWN, DIRECTIONS[side]);
+            }
+
+            if (tick % shootTicks == 0)
+                input.offer(InputQueue.SHOOT, 0);
+        }
+    }
+
+    static Policy createPolicy(String name) {
+        if (name.equals("idle"))
+            return new IdlePolicy();
+        if (name.equals("patrol"))
+            return new PatrolPolicy();
+        if (name.equals("random"))
+            return new RandomPolicy();
+        throw new IllegalArgumentException("Unknown policy: " + name);
+    }
+
+    //Result of one match
+    static class Match {
+        int enemies;
+        int friends;
+        int index;
+        long seed;
+        int state;
+        long ticks;
+
+        //Tick times of the match in microseconds
+        double tickMean;
+        double tickP50;
+        double tickP99;
+        double tickMax;
+    }
+
+    //Mixed into the match seed for the policy's generator. Splitting the match seed like the world does would give the
+    //policy the same numbers that placed the characters, so its decisions would follow the spawn layout
+    static final long POLICY_SALT = 0x706F6C6963790001L;
+
+    static int width = 500;
+    static int height = 500;
+    static long maxTicks = 100000;
+    static String policy = "random";
+    static int pursuit = 0;
+    static int dormancy = 0;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int matches = 1000;
+        int[] enemyCounts = {10};
+        int[] friendCounts = {10};
+        int workers = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        String csv = null;
+        String matchesCsv = null;
+        boolean checkSeeds = false;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--matches") && i + 1 < args.length)
+                matches = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--enemies") && i + 1 < args.length)
+                enemyCounts = parseCounts(args[++i]);
+            else if (args[i].equals("--friends") && i + 1 < args.length)
+                friendCounts = parseCounts(args[++i]);
+            else if (args[i].equals("--policy") && i + 1 < args.length)
+                policy = args[++i];
+            else if (args[i].equals("--width") && i + 1 < args.length)
+                width = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--height") && i + 1 < args.length)
+                height = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--ticks") && i + 1 < args.length)
+                maxTicks = Long.parseLong(args[++i]);
+            else if (args[i].equals("--workers") && i + 1 < args.length)
+                workers = Math.max(1, Integer.parseInt(args[++i]));
+            else if (args[i].equals("--pursuit") && i + 1 < args.length)
+                pursuit = Main.parsePursuit(args[++i]);
+            else if (args[i].equals("--dormancy") && i + 1 < args.length)
+                dormancy = Integer.parseInt(args[++i]);
+            else if (args[i].equals("--seed") && i + 1 < args.length)
+                seed = Long.parseLong(args[++i]);
+            else if (args[i].equals("--csv") && i + 1 < args.length)
+                csv = args[++i];
+            else if (args[i].equals("--matches-csv") && i + 1 < args.length)
+                matchesCsv = args[++i];
+            else if (args[i].equals("--check-seeds"))
+                checkSeeds = true;
+        }
+        createPolicy(policy);
+
+        if (checkSeeds) {
+            for (int enemies : enemyCounts) {
+                for (int friends : friendCounts) {
+                    for (int index = 0; index < matches; index++)
+                        checkPolicyGenerator(matchSeed(index, enemies, friends, seed));
+                }
+            }
+            System.out.println("Policy generators of all the matches are independent from their spawn generators");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "match");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        PrintWriter summary = csv == null ? null : new PrintWriter(new FileWriter(csv));
+        PrintWriter perMatch = matchesCsv == null ? null : new PrintWriter(new FileWriter(matchesCsv));
+        if (summary != null)
+            summary.println("enemies,friends,policy,matches,seconds,matches_per_second,win_rate,loss_rate,"
+                    + "mean_ticks,p50_ticks,p90_ticks,p99_ticks,tick_p50_us,tick_p99_us,tick_max_us");
+        if (perMatch != null)
+            perMatch.println("enemies,friends,policy,match,seed,result,ticks,tick_mean_us,tick_p50_us,tick_p99_us,tick_max_us");
+
+        System.out.printf("%-8s %8s %8s %12s %8s %10s %10s %12s %12s%n", "Enemies", "Friends", "Matches",
+                "Matches/s", "Win %", "Ticks p50", "Ticks p99", "Tick p99 us", "Tick max us");
+        try {
+            for (int enemies : enemyCounts) {
+                for (int friends : friendCounts) {
+                    long start = System.nanoTime();
+                    Match[] results = play(pool, workers, matches, enemies, friends, seed);
+                    double seconds = (System.nanoTime() - start) / 1e9;
+                    report(results, seconds, summary, perMatch);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            if (summary != null)
+                summary.close();
+            if (perMatch != null)
+                perMatch.close();
+        }
+    }
+
+    static int[] parseCounts(String text) {
+        String[] parts = text.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++)
+            counts[i] = Integer.parseInt(parts[i].trim());
+        return counts;
+    }
+
+    //Plays the given number of matches on the workers. Every worker takes the next match until all are played
+    static Match[] play(ExecutorService pool, int workers, int matches, int enemies, int friends, long seed)
+            throws InterruptedException {
+        Match[] results = new Match[matches];
+        AtomicInteger next = new AtomicInteger();
+
+        Future<?>[] running = new Future<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            running[w] = pool.submit(() -> {
+                for (int index = next.getAndIncrement(); index < matches; index = next.getAndIncrement())
+                    results[index] = playMatch(index, enemies, friends, seed);
+            });
+        }
+
+        for (Future<?> worker : running) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    //Generator of the aircraft policy in the match with the given seed (Independent from the streams of the world)
+    static Rng policyGenerator(long matchSeed) {
+        return new Rng(Rng.mix(matchSeed ^ POLICY_SALT));
+    }
+
+    //Checks that the first draws of the policy are not the first draws of the spawn generator of the same match
+    //(Only with --check-seeds. World splits its spawn generator first from a generator with the match seed, see GameWorld)
+    static void checkPolicyGenerator(long matchSeed) {
+        Rng policyGenerator = policyGenerator(matchSeed);
+        Rng spawnGenerator = new Rng(matchSeed).split();
+        for (int i = 0; i < 8; i++) {
+            if (policyGenerator.nextLong() == spawnGenerator.nextLong())
+                throw new IllegalStateException("Policy generator repeats the spawn generator of the match");
+        }
+    }
+
+    //Seed of the match only depends on the tournament seed, counts and the index of the match
+    static long matchSeed(int index, int enemies, int friends, long seed) {
+        return Rng.mix(seed * 31 + Rng.mix(enemies * 65536L + friends) + index);
+    }
+
+    //Plays one match in the calling thread as fast as possible
+    static Match playMatch(int index, int enemies, int friends, long seed) {
+        long matchSeed = matchSeed(index, enemies, friends, seed);
+        Rng policyGenerator = policyGenerator(matchSeed);
+        Policy aircraftPolicy = createPolicy(policy);
+
+        GameWorld world = new GameWorld(width, height, matchSeed);
+        world.setPursuit(pursuit);
+        world.setDormancy(dormancy);
+        InputQueue input = world.enableInput();
+        int[] spawnedEnemies = world.spawnEnemies(enemies);
+        int[] spawnedFriends = world.spawnFriends(friends);
+        world.start(world.spawnAircraft());
+        for (int enemy : spawnedEnemies)
+            world.start(enemy);
+        for (int friend : spawnedFriends)
+            world.start(friend);
+
+        //Policy writes the input of the next tick, then the world takes it at the start of the tick
+        while (world.isRunning() && world.getTickCount() < maxTicks) {
+            aircraftPolicy.act(world.getTickCount() + 1, input, policyGenerator);
+            world.tick();
+        }
+
+        Match match = new Match();
+        match.enemies = enemies;
+        match.friends = friends;
+        match.index = index;
+        match.seed = matchSeed;
+        match.state = world.getState();
+        match.ticks = world.getTickCount();
+
+        LatencyHistogram tickTime = world.getMetrics().getTickTime();
+        match.tickMean = tickTime.getMean() / 1000.0;
+        match.tickP50 = tickTime.getPercentile(50) / 1000.0;
+        match.tickP99 = tickTime.getPercentile(99) / 1000.0;
+        match.tickMax = tickTime.getMax() / 1000.0;
+        return match;
+    }
+
+    //Prints the results of one configuration and writes them to the CSV files
+    static void report(Match[] results, double seconds, PrintWriter summary, PrintWriter perMatch) {
+        int matches = results.length;
+        int won = 0;
+        int lost = 0;
+        long totalTicks = 0;
+        long[] lengths = new long[matches];
+        double[] tickP50s = new double[matches];
+        double[] tickP99s = new double[matches];
+        double tickMax = 0;
+
+        for (int i = 0; i < matches; i++) {
+            Match match = results[i];
+            if (match.state == GameWorld.WON)
+                won++;
+            else if (match.state == GameWorld.LOST)
+                lost++;
+
+            totalTicks += match.ticks;
+            lengths[i] = match.ticks;
+            tickP50s[i] = match.tickP50;
+            tickP99s[i] = match.tickP99;
+            tickMax = Math.max(tickMax, match.tickMax);
+
+            if (perMatch != null)
+                perMatch.printf("%d,%d,%s,%d,%d,%s,%d,%.3f,%.3f,%.3f,%.3f%n", match.enemies, match.friends, policy, match.index,
+                        match.seed, resultName(match.state), match.ticks, match.tickMean, match.tickP50, match.tickP99, match.tickMax);
+        }
+        Arrays.sort(lengths);
+        Arrays.sort(tickP50s);
+        Arrays.sort(tickP99s);
+
+        int enemies = matches == 0 ? 0 : results[0].enemies;
+        int friends = matches == 0 ? 0 : results[0].friends;
+        double matchesPerSecond = matches / seconds;
+        double winRate = matches == 0 ? 0 : (double) won / matches;
+        double lossRate = matches == 0 ? 0 : (double) lost / matches;
+
+        //Tick times of the configuration are the medians of the matches' percentiles (And the worst tick of all)
+        double tickP50 = percentile(tickP50s, 50);
+        double tickP99 = percentile(tickP99s, 50);
+
+        System.out.printf("%-8d %8d %8d %12.1f %8.1f %10d %10d %12.1f %12.1f%n", enemies, friends, matches,
+                matchesPerSecond, winRate * 100, percentile(lengths, 50), percentile(lengths, 99), tickP99, tickMax);
+
+        if (summary != null)
+            summary.printf("%d,%d,%s,%d,%.3f,%.2f,%.4f,%.4f,%.1f,%d,%d,%d,%.3f,%.3f,%.3f%n", enemies, friends, policy, matches,
+                    seconds, matchesPerSecond, winRate, lossRate, matches == 0 ? 0.0 : (double) totalTicks / matches,
+                    percentile(lengths, 50), percentile(lengths, 90), percentile(lengths, 99), tickP50, tickP99, tickMax);
+    }
+
+    static String resultName(int state) {
+        return state == GameWorld.WON ? "won" : state == GameWorld.LOST ? "lost" : "unfinished";
+    }
+
+    //Value at the given part (0-100) of the sorted values
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    static double percentile(double[] sorted, double percentile) {
+        if (sorted.length == 0)
+            return 0;
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
@@ -0,0 +1,363 @@
+//************************************************************************************
+// WorldSnapshot.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// Saves the whole state of a GameWorld between two ticks into a binary file and loads it again. Loaded world
+// continues exactly like the saved one (Same characters, bullets, timers, grids and random number generators).
+// Every part of the world writes its primitive arrays as they are (Array length, then the values), so saving
+// and loading copy whole arrays and never create an object per character or bullet.
+// Files are written and read through memory mapped regions of a FileChannel (64 MB at a time, so files can be
+// bigger than one mapping). Size of the file is measured first, so the file is mapped with its exact size.
+//
+// File format (Little endian):
+//     int magic ("ASGS"), short version, int width, int height, long seed
+//     world, characters, bullets, timers, grids, occupancy, overlaps, chunks (See their save methods)
+//     long checksum of the world (Checked after loading)
+//************************************************************************************
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class WorldSnapshot {
+
+    static final int MAGIC = 0x41534753;
+    static final int VERSION = 1;
+
+    //Size of one mapped region of the file
+    private static final long REGION = 64L << 20;
+
+    //Saves the world into the file (Waits for the current tick to end)
+    public static void save(GameWorld world, Path path) throws IOException {
+        synchronized (world.lock) {
+            //First pass only counts the bytes
+            Output size = new Output();
+            write(world, size);
+
+            try (Output output = new Output(path, size.getSize())) {
+                write(world, output);
+            }
+        }
+    }
+
+    //Loads a world saved with save. The world is not started
+    public static GameWorld load(Path path) throws IOException {
+        try (Input input = new Input(path)) {
+            if (input.getInt() != MAGIC)
+                throw new IOException("Not a saved world: " + path);
+            int version = input.getShort();
+            if (version != VERSION)
+                throw new IOException("Unsupported version of the saved world: " + version);
+
+            int width = input.getInt();
+            int height = input.getInt();
+            long seed = input.getLong();
+            GameWorld world = new GameWorld(width, height, seed);
+            synchronized (world.lock) {
+                world.load(input);
+            }
+
+            if (input.getLong() != world.checksum())
+                throw new IOException("Saved world is broken: " + path);
+            return world;
+        }
+    }
+
+    private static void write(GameWorld world, Output output) {
+        output.putInt(MAGIC);
+        output.putShort(VERSION);
+        output.putInt(world.getWidth());
+        output.putInt(world.getHeight());
+        output.putLong(world.getSeed());
+        world.save(output);
+        output.putLong(world.checksum());
+    }
+
+    //Writes the values into the mapped regions of a file. Without a file it only counts the bytes
+    static class Output implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long regionStart = 0;
+
+        //Number of bytes written (Or counted)
+        private long written = 0;
+
+        //Counts the bytes without writing them
+        Output() {
+            channel = null;
+            size = 0;
+        }
+
+        Output(Path path, long size) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = size;
+            map(0);
+        }
+
+        long getSize() {
+            return written;
+        }
+
+        private void map(long start) {
+            try {
+                regionStart = start;
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(REGION, size - start));
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        //Maps the next region if there are less than the given bytes in the current one
+        private void ensure(int bytes) {
+            written += bytes;
+            if (channel != null && buffer.remaining() < bytes)
+                map(regionStart + buffer.position());
+        }
+
+        void putByte(int value) {
+            ensure(1);
+            if (channel != null)
+                buffer.put((byte) value);
+        }
+
+        void putShort(int value) {
+            ensure(2);
+            if (channel != null)
+                buffer.putShort((short) value);
+        }
+
+        void putInt(int value) {
+            ensure(4);
+            if (channel != null)
+                buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(8);
+            if (channel != null)
+                buffer.putLong(value);
+        }
+
+        void putBoolean(boolean value) {
+            putByte(value ? 1 : 0);
+        }
+
+        //Writes the first count values of the array (count, then the values)
+        void putInts(int[] values, int count) {
+            putInt(count);
+            if (channel == null) {
+                written += 4L * count;
+                return;
+            }
+
+            for (int done = 0; done < count; ) {
+                if (buffer.remaining() < 4)
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining() / 4);
+                buffer.asIntBuffer().put(values, done, part);
+                buffer.position(buffer.position() + part * 4);
+                done += part;
+            }
+            written += 4L * count;
+        }
+
+        void putLongs(long[] values, int count) {
+            putInt(count);
+            if (channel == null) {
+                written += 8L * count;
+                return;
+            }
+
+            for (int done = 0; done < count; ) {
+                if (buffer.remaining() < 8)
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining() / 8);
+                buffer.asLongBuffer().put(values, done, part);
+                buffer.position(buffer.position() + part * 8);
+                done += part;
+            }
+            written += 8L * count;
+        }
+
+        void putBytes(byte[] values, int count) {
+            putInt(count);
+            if (channel == null) {
+                written += count;
+                return;
+            }
+
+            for (int done = 0; done < count; ) {
+                if (!buffer.hasRemaining())
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining());
+                buffer.put(values, done, part);
+                done += part;
+            }
+            written += count;
+        }
+
+        //Booleans are written as one byte each
+        void putBooleans(boolean[] values, int count) {
+            putInt(count);
+            written += count;
+            if (channel == null)
+                return;
+
+            for (int i = 0; i < count; i++) {
+                if (!buffer.hasRemaining())
+                    map(regionStart + buffer.position());
+                buffer.put((byte) (values[i] ? 1 : 0));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel == null)
+                return;
+
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    //Reads the values from the mapped regions of a file
+    static class Input implements Closeable {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer buffer;
+        private long regionStart = 0;
+
+        Input(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+            map(0);
+        }
+
+        private void map(long start) {
+            try {
+                regionStart = start;
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION, size - start));
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes)
+                map(regionStart + buffer.position());
+        }
+
+        int getByte() {
+            ensure(1);
+            return buffer.get();
+        }
+
+        int getShort() {
+            ensure(2);
+            return buffer.getShort();
+        }
+
+        int getInt() {
+            ensure(4);
+            return buffer.getInt();
+        }
+
+        long getLong() {
+            ensure(8);
+            return buffer.getLong();
+        }
+
+        boolean getBoolean() {
+            return getByte() != 0;
+        }
+
+        //Reads an array written with putInts into a new array with the given length (At least the written count)
+        int[] getInts(int length) {
+            int count = getInt();
+            int[] values = new int[Math.max(length, count)];
+            readInts(values, count);
+            return values;
+        }
+
+        //Reads an array written with putInts into the given array (Written count has to be its length)
+        void getInts(int[] values) {
+            int count = getInt();
+            if (count != values.length)
+                throw new IllegalStateException("Saved array has " + count + " values instead of " + values.length);
+            readInts(values, count);
+        }
+
+        private void readInts(int[] values, int count) {
+            for (int done = 0; done < count; ) {
+                if (buffer.remaining() < 4)
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining() / 4);
+                buffer.asIntBuffer().get(values, done, part);
+                buffer.position(buffer.position() + part * 4);
+                done += part;
+            }
+        }
+
+        long[] getLongs(int length) {
+            int count = getInt();
+            long[] values = new long[Math.max(length, count)];
+            readLongs(values, count);
+            return values;
+        }
+
+        void getLongs(long[] values) {
+            int count = getInt();
+            if (count != values.length)
+                throw new IllegalStateException("Saved array has " + count + " values instead of " + values.length);
+            readLongs(values, count);
+        }
+
+        private void readLongs(long[] values, int count) {
+            for (int done = 0; done < count; ) {
+                if (buffer.remaining() < 8)
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining() / 8);
+                buffer.asLongBuffer().get(values, done, part);
+                buffer.position(buffer.position() + part * 8);
+                done += part;
+            }
+        }
+
+        byte[] getBytes(int length) {
+            int count = getInt();
+            byte[] values = new byte[Math.max(length, count)];
+            for (int done = 0; done < count; ) {
+                if (!buffer.hasRemaining())
+                    map(regionStart + buffer.position());
+                int part = Math.min(count - done, buffer.remaining());
+                buffer.get(values, done, part);
+                done += part;
+            }
+            return values;
+        }
+
+        boolean[] getBooleans(int length) {
+            int count = getInt();
+            boolean[] values = new boolean[Math.max(length, count)];
+            for (int i = 0; i < count; i++) {
+                if (!buffer.hasRemaining())
+                    map(regionStart + buffer.position());
+                values[i] = buffer.get() != 0;
+            }
+            return values;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,415 @@
+//************************************************************************************
+// GameBenchmarks.java         Author:Ali Berk Karaarslan     Date:17.10.2026
+//
+// JMH benchmarks of the hot paths of the game (Character collision, bullet collision, spawning, garbage clearing,
+// painting, ticks, pursuit and saving the world) for entity counts from 10 to 100000 (@Param count). Results are the
+// time of one invocation (One invocation handles count entities, ex: count collision checks). Benchmarks that only read
+// their world (ex: Painting) prepare it once for every count and are measured as the average time of many invocations.
+// Benchmarks that change their world (ex: Spawning, ticks) need a new world for every invocation, so they are measured
+// in single shots: Before every iteration (Not timed) a batch of worlds is prepared, then the iteration runs one
+// invocation on each of them and the time of the batch is divided by the batch size (@OperationsPerInvocation, so the
+// batch size can't be changed with "-bs"). This class is compiled in the package "game" with a copy of the game sources
+// (See jmh/pom.xml), so it calls the game like any class of the game.
+//
+// Build and run from the project directory:
+//     mvn -B package
+//     java -jar jmh/target/benchmarks.jar [characterCollision] [-p count=10,1000]
+//************************************************************************************
+
+package game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.IterationParams;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GameBenchmarks {
+
+    //Worlds prepared for one iteration of the benchmarks that change their world (Batch size of their single shots)
+    static final int BATCH = 10;
+
+    //Seed of all the worlds (Every iteration starts from the same world)
+    static final long SEED = 1;
+
+    //Side of the smallest square world (500, 1000, 2000...) where the given number of characters fill at most half of the cells
+    static int worldSide(int characters) {
+        int side = 500;
+        while ((side / 10) * (side / 10) / 2 < characters)
+            side *= 2;
+        return side;
+    }
+
+    //Creates a world with the given number of enemies and friends (Started, so they move and shoot when ticked).
+    //World is made big enough for them (Same density as the biggest 500x500 waves)
+    static GameWorld createWorld(int enemies, int friends) {
+        int side = worldSide(enemies + friends);
+        GameWorld world = new GameWorld(side, side, SEED);
+
+        for (int i = 0; i < enemies; i++)
+            world.start(world.spawnEnemy());
+        for (int i = 0; i < friends; i++)
+            world.start(world.spawnFriend());
+        world.start(world.spawnAircraft());
+        return world;
+    }
+
+    //Spawns count bullets of random owners and directions at random positions in the given area of the world
+    static void spawnBullets(GameWorld world, int count, int width, int height) {
+        Random generator = new Random(count);
+        for (int i = 0; i < count; i++)
+            world.spawnBullet(generator.nextInt(width), generator.nextInt(height), generator.nextBoolean() ? 1 : -1, (byte) generator.nextInt(3));
+    }
+
+    //Copies the slots of the living characters of the world's store into an array
+    static int[] charactersOf(GameWorld world) {
+        int[] characters = new int[world.characters.size()];
+        int count = 0;
+        for (int slot = 0; slot < world.characters.getSlotCount(); slot++)
+            if (world.checkExist(slot))
+                characters[count++] = slot;
+        return Arrays.copyOf(characters, count);
+    }
+
+    //Worlds of the benchmarks that change their world. Every invocation takes the next world of the batch
+    @State(Scope.Thread)
+    public abstract static class Batch {
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int count;
+
+        GameWorld[] worlds;
+        int next;
+
+        //Creates the world of one invocation
+        abstract GameWorld prepare();
+
+        @Setup(Level.Iteration)
+        public void prepareBatch(IterationParams iteration) {
+            worlds = new GameWorld[iteration.getBatchSize()];
+            for (int i = 0; i < worlds.length; i++)
+                worlds[i] = prepare();
+            next = 0;
+        }
+
+        //Stops the update threads of the worlds of the previous iteration
+        @TearDown(Level.Iteration)
+        public void tearDownBatch() {
+            if (worlds == null)
+                return;
+            for (GameWorld world : worlds)
+                world.setUpdateThreads(1);
+            worlds = null;
+        }
+
+        GameWorld world() {
+            return worlds[next++];
+        }
+    }
+
+    //World with 100 enemies and 100 friends and count bullets of all owners at random positions among them
+    public static class BulletWorld extends Batch {
+        GameWorld prepare() {
+            GameWorld world = createWorld(100, 100);
+            spawnBullets(world, count, 500, 500);
+            return world;
+        }
+    }
+
+    //Empty world for count characters
+    public static class EmptyWorld extends Batch {
+        GameWorld prepare() {
+            int side = worldSide(count);
+            return new GameWorld(side, side, SEED);
+        }
+    }
+
+    //World with count characters of which every second one is deleted (Garbage is not cleared)
+    public static class GarbageWorld extends Batch {
+        GameWorld prepare() {
+            GameWorld world = createWorld(count / 2, count - count / 2);
+            int[] characters = charactersOf(world);
+            for (int i = 0; i < characters.length; i += 2) {
+                if (world.characters.archetype(characters[i]) == CharacterStore.ENEMY)
+                    world.deleteEnemy(characters[i]);
+                else if (world.characters.archetype(characters[i]) == CharacterStore.FRIEND)
+                    world.deleteFriend(characters[i]);
+            }
+            return world;
+        }
+    }
+
+    //World with count characters and count bullets, ticked until the tick before the bullets step again (Serial update)
+    public static class SteppingWorld extends Batch {
+        int threads() {
+            return 1;
+        }
+
+        GameWorld prepare() {
+            GameWorld world = createWorld(count / 2, count - count / 2);
+            world.setUpdateThreads(threads());
+            //Parallel update is used in every tick (Not only in the ticks with many bullets)
+            world.setParallelThreshold(1);
+            spawnBullets(world, count, world.getWidth(), world.getHeight());
+
+            //Runs the ticks until the one of the second step of the bullets (First step starts the update threads)
+            while (world.timers.getCurrentTick() + 1 < 2 * world.getBulletMoveTicks())
+                world.tick();
+            return world;
+        }
+    }
+
+    //Same as SteppingWorld with the collision queries on the given number of update threads (Not the number of
+    //processors, so it never falls back to the serial update)
+    public static class ParallelSteppingWorld extends SteppingWorld {
+        @Param({"2", "4"})
+        public int threads;
+
+        int threads() {
+            return threads;
+        }
+    }
+
+    //World with count enemies that chase the aircraft
+    public static class PursuitWorld extends Batch {
+        GameWorld prepare() {
+            GameWorld world = createWorld(count, 0);
+            world.setPursuit(GameWorld.PURSUIT_ENEMIES);
+            return world;
+        }
+    }
+
+    //Snapshot of count bullets and up to 1000 characters to paint into a 500x500 offscreen image
+    @State(Scope.Thread)
+    public static class Painting {
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int count;
+
+        BufferedImage image;
+        SnapshotPainter painter;
+        RasterPainter rasterPainter;
+        RenderSnapshot snapshot;
+
+        @Setup(Level.Trial)
+        public void prepare() {
+            image = new BufferedImage(500, 500, BufferedImage.TYPE_INT_RGB);
+            painter = new SnapshotPainter();
+            rasterPainter = new RasterPainter(500, 500, Color.WHITE.getRGB());
+
+            int characters = Math.min(count, 1000);
+            GameWorld world = createWorld(characters / 2, characters - characters / 2);
+            spawnBullets(world, count, 500, 500);
+            snapshot = world.enableSnapshots().acquire();
+        }
+    }
+
+    //World with count characters and count bullets. Benchmarks only read it
+    @State(Scope.Thread)
+    public static class SharedWorld {
+        @Param({"10", "100", "1000", "10000", "100000"})
+        public int count;
+
+        GameWorld world;
+        int[] characters;
+        RenderSnapshot.Exchange snapshots;
+
+        //File of the saved world
+        Path file;
+
+        @Setup(Level.Trial)
+        public void prepare() throws IOException {
+            world = createWorld(count / 2, count - count / 2);
+            spawnBullets(world, count, world.getWidth(), world.getHeight());
+            characters = charactersOf(world);
+            world.setViewportSize(500, 500);
+            snapshots = world.enableSnapshots();
+
+            file = Files.createTempFile("world", ".snap");
+            WorldSnapshot.save(world, file);
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    //checkCharacterCollision for every character of a world with count characters. Characters are spawned in free
+    //cells, so the checks find no collision and don't change the world
+    @Benchmark
+    public void characterCollision(SharedWorld state, Blackhole blackhole) {
+        for (int character : state.characters)
+            state.world.checkCharacterCollision(character);
+        blackhole.consume(state.world.characters.size());
+    }
+
+    //checkBulletCollision for all the bullets of a BulletWorld (Hits delete the bullets and the characters)
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void bulletCollision(BulletWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        int bullets = world.bullets.getHighWater();
+        synchronized (world.lock) {
+            for (int i = 0; i < bullets; i++)
+                world.checkBulletCollision(i);
+        }
+        blackhole.consume(world.bullets.size());
+    }
+
+    //Placing count enemies into an empty world
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void enemySpawn(EmptyWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        for (int i = 0; i < state.count; i++)
+            blackhole.consume(world.spawnEnemy());
+    }
+
+    //Placing count friends into an empty world
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void friendSpawn(EmptyWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        for (int i = 0; i < state.count; i++)
+            blackhole.consume(world.spawnFriend());
+    }
+
+    //Placing count enemies into an empty world with one spawnEnemies call
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void bulkSpawn(EmptyWorld state, Blackhole blackhole) {
+        blackhole.consume(state.world().spawnEnemies(state.count));
+    }
+
+    //Clearing the garbage after half of count characters are deleted
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void garbageClear(GarbageWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        synchronized (world.lock) {
+            world.clearGarbage();
+        }
+        blackhole.consume(world.characters.size());
+    }
+
+    //Painting the snapshot with the SnapshotPainter (Java2D)
+    @Benchmark
+    public void paintSnapshot(Painting state, Blackhole blackhole) {
+        Graphics g = state.image.getGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, 500, 500);
+            state.painter.paint(g, state.snapshot);
+        } finally {
+            g.dispose();
+        }
+        blackhole.consume(state.image.getRGB(250, 250));
+    }
+
+    //Painting the snapshot with the RasterPainter
+    @Benchmark
+    public void paintRaster(Painting state, Blackhole blackhole) {
+        blackhole.consume(state.rasterPainter.paint(state.snapshot).getRGB(250, 250));
+    }
+
+    //Building the snapshot of a 500x500 viewport (World grows with the count, so most of the entities are outside of it)
+    @Benchmark
+    public void publishSnapshot(SharedWorld state, Blackhole blackhole) {
+        synchronized (state.world.lock) {
+            state.world.publishSnapshot();
+        }
+        blackhole.consume(state.snapshots.acquire().getCount());
+    }
+
+    //One tick in which count bullets step among as many characters (Serial update)
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void bulletStep(SteppingWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        world.tick();
+        blackhole.consume(world.bullets.size());
+    }
+
+    //Same tick as bulletStep with the collision queries on the update threads
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void parallelBulletStep(ParallelSteppingWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        world.tick();
+        blackhole.consume(world.bullets.size());
+    }
+
+    //Aircraft moves to another cell, then all the enemies move once towards it with the flow field
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 50, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public void enemyPursuit(PursuitWorld state, Blackhole blackhole) {
+        GameWorld world = state.world();
+        synchronized (world.lock) {
+            world.moveAircraft(1, 0);
+            for (int slot = 0; slot < world.characters.getSlotCount(); slot++)
+                if (world.checkExist(slot) && world.characters.archetype(slot) == CharacterStore.ENEMY)
+                    world.moveOnce(slot);
+        }
+        blackhole.consume(world.getEnemyCount());
+    }
+
+    //Saving a world with count characters and as many bullets into a snapshot file
+    @Benchmark
+    public void snapshotSave(SharedWorld state) throws IOException {
+        WorldSnapshot.save(state.world, state.file);
+    }
+
+    //Loading the world of snapshotSave from its file
+    @Benchmark
+    public void snapshotLoad(SharedWorld state, Blackhole blackhole) throws IOException {
+        blackhole.consume(WorldSnapshot.load(state.file));
+    }
+}